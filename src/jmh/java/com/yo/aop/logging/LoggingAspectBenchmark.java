@@ -0,0 +1,98 @@
+package com.yo.aop.logging;
+
+import ch.qos.logback.classic.Level;
+import com.yo.config.ApplicationProperties;
+import com.yo.management.MethodMetersService;
+import com.yo.service.BenchmarkEchoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * Measure what {@link LoggingAspect#logAround} adds to a call of a service, against the same call without a proxy:
+ * logging only as in the {@code dev} profile, then timing every call or one call in a hundred.
+ * <p>
+ * At {@code DEBUG}, the logger of the service has no appender, so that the arguments and results are still logged
+ * but nothing is written: the measure is the aspect, not the console.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingAspectBenchmark {
+
+    @Param({ "INFO", "DEBUG" })
+    public String level;
+
+    private BenchmarkEchoService service;
+
+    private BenchmarkEchoService advisedService;
+
+    private BenchmarkEchoService timedService;
+
+    private BenchmarkEchoService sampledService;
+
+    private ch.qos.logback.classic.Logger serviceLogger;
+
+    @Setup
+    public void setup() {
+        service = new BenchmarkEchoService();
+        advisedService = advise(new LoggingAspect(new StandardEnvironment()));
+        MethodMetersService methodMetersService = new MethodMetersService(new SimpleMeterRegistry(), new ApplicationProperties());
+        timedService = advise(new LoggingAspect(new StandardEnvironment(), methodMetersService, 1.0));
+        sampledService = advise(new LoggingAspect(new StandardEnvironment(), methodMetersService, 0.01));
+
+        serviceLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(BenchmarkEchoService.class);
+        serviceLogger.setAdditive(false);
+        serviceLogger.setLevel(Level.toLevel(level));
+    }
+
+    @TearDown
+    public void tearDown() {
+        serviceLogger.setLevel(null);
+        serviceLogger.setAdditive(true);
+    }
+
+    @Benchmark
+    public String direct() {
+        return service.echo("benchmark");
+    }
+
+    @Benchmark
+    public String logAround() {
+        return advisedService.echo("benchmark");
+    }
+
+    @Benchmark
+    public String logAroundTimed() {
+        return timedService.echo("benchmark");
+    }
+
+    @Benchmark
+    public String logAroundSampled() {
+        return sampledService.echo("benchmark");
+    }
+
+    private BenchmarkEchoService advise(LoggingAspect loggingAspect) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(service);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(loggingAspect);
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,79 @@
+package com.yo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.yo.domain.Drone;
+import com.yo.domain.Medication;
+import com.yo.domain.enumeration.Model;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measure the serialization of a drone and its medications, as the REST resources return it.
+ * <p>
+ * The {@link ObjectMapper} is built like the one of the application: with the modules of
+ * {@link JacksonConfiguration}, and dates written as ISO-8601 strings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DroneSerializationBenchmark {
+
+    @Param({ "0", "10", "100" })
+    public int medications;
+
+    private ObjectWriter droneWriter;
+
+    private Drone drone;
+
+    @Setup
+    public void setup() {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder
+            .json()
+            .modules(
+                jacksonConfiguration.javaTimeModule(),
+                jacksonConfiguration.jdk8TimeModule(),
+                jacksonConfiguration.hibernate5Module(),
+                jacksonConfiguration.problemModule(),
+                jacksonConfiguration.constraintViolationProblemModule()
+            )
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        droneWriter = objectMapper.writerFor(Drone.class);
+
+        drone =
+            new Drone()
+                .id(1L)
+                .serialNumber("benchmark serial")
+                .model(Model.Heavyweight)
+                .weightLimit(500L)
+                .batteryCapacity(90)
+                .state(com.yo.domain.enumeration.State.LOADED)
+                .loadedWeight(0L)
+                .version(0L);
+        for (long i = 1; i <= medications; i++) {
+            drone.addMedication(new Medication().id(i).name("MEDICATION_" + i).weght(5).code("CODE_" + i).version(0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeDrone() throws Exception {
+        return droneWriter.writeValueAsBytes(drone);
+    }
+}
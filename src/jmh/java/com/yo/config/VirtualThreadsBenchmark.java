@@ -0,0 +1,101 @@
+package com.yo.config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the {@code taskExecutor} pool with virtual threads bounded by the connections, under blocking load.
+ * <p>
+ * Each task takes a connection from a pool of {@value #CONNECTIONS}, as a request does from Hikari, and holds it for
+ * {@value #QUERY_MILLIS} ms of JDBC latency; the score is in tasks per second. The pool is configured like
+ * {@code jhipster.task.execution.pool}: with its large queue, it never grows past its core threads. Virtual threads
+ * need Java 21, add them with {@code -Djmh.args="-p mode=thread-pool,thread-pool-50,virtual-threads"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadsBenchmark {
+
+    private static final int TASKS = 200;
+
+    private static final int CONNECTIONS = 20;
+
+    private static final long QUERY_MILLIS = 5;
+
+    @Param({ "thread-pool", "thread-pool-50" })
+    public String mode;
+
+    private ExecutorService executorService;
+
+    private Executor executor;
+
+    @Setup
+    public void setup() {
+        switch (mode) {
+            case "thread-pool":
+                executorService = new ThreadPoolExecutor(2, 50, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(10_000));
+                executor = executorService;
+                break;
+            case "thread-pool-50":
+                executorService = new ThreadPoolExecutor(50, 50, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(10_000));
+                executor = executorService;
+                break;
+            case "virtual-threads":
+                executorService =
+                    VirtualThreadExecutors
+                        .newThreadPerTaskExecutor("benchmark-")
+                        .orElseThrow(() -> new IllegalStateException("Virtual threads are not available on Java " + Runtime.version()));
+                executor = VirtualThreadExecutors.limit(executorService, CONNECTIONS);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public void execute() throws InterruptedException {
+        Semaphore connections = new Semaphore(CONNECTIONS, true);
+        CountDownLatch done = new CountDownLatch(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            executor.execute(() -> {
+                connections.acquireUninterruptibly();
+                try {
+                    Thread.sleep(QUERY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    connections.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+}
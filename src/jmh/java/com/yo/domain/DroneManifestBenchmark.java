@@ -0,0 +1,62 @@
+package com.yo.domain;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure loading medications onto one drone, as {@code DroneServiceImpl.loadMedications} does after saving them.
+ * <p>
+ * {@code hashSet} loads them into a {@code HashSet}, where the shared hash code of the medications puts them all in
+ * one bucket: its time grows with the square of the number of medications, while {@code manifest} grows linearly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DroneManifestBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int medications;
+
+    private Medication[] saved;
+
+    @Setup
+    public void setup() {
+        saved = new Medication[medications];
+        for (int i = 0; i < medications; i++) {
+            saved[i] = new Medication().id(i + 1L).name("MEDICATION_" + i).weght(1).code("CODE_" + i);
+        }
+    }
+
+    @Benchmark
+    public Drone manifest() {
+        Drone drone = new Drone().id(1L);
+        for (Medication medication : saved) {
+            drone.addMedication(medication);
+        }
+        return drone;
+    }
+
+    @Benchmark
+    public Set<Medication> hashSet() {
+        Set<Medication> manifest = new HashSet<>();
+        for (Medication medication : saved) {
+            manifest.add(medication);
+        }
+        return manifest;
+    }
+}
@@ -0,0 +1,90 @@
+package com.yo.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.yo.management.SecurityMetersService;
+import com.yo.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Measure the work of {@link JWTFilter} on every authenticated request: validating the token, then building the
+ * authentication from its claims.
+ * <p>
+ * Without the cache of the validated tokens ({@code maxEntries} 0), each call verifies and parses the token again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenProviderBenchmark {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    @Param({ "0", "10000" })
+    public long maxEntries;
+
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    private String tokenWithInvalidSignature;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            new SecurityMetersService(new SimpleMeterRegistry()),
+            maxEntries,
+            Ticker.systemTicker()
+        );
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "benchmark",
+            "benchmark",
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))
+        );
+        token = tokenProvider.createToken(authentication, false);
+        tokenWithInvalidSignature = token.substring(0, token.lastIndexOf('.') + 1) + "invalid";
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenWithInvalidSignature() {
+        return tokenProvider.validateToken(tokenWithInvalidSignature);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Authentication filterRequest() {
+        return tokenProvider.resolveAuthentication(token).orElse(null);
+    }
+}
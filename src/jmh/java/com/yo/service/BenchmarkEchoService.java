@@ -0,0 +1,12 @@
+package com.yo.service;
+
+/**
+ * Service doing almost nothing, to measure what the aspects of the service layer add to a call.
+ * It is built by the benchmark itself rather than component-scanned, so it never becomes a bean of the application.
+ */
+public class BenchmarkEchoService {
+
+    public String echo(String value) {
+        return value;
+    }
+}
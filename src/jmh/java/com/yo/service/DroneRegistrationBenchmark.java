@@ -0,0 +1,59 @@
+package com.yo.service;
+
+import com.yo.domain.Drone;
+import com.yo.domain.enumeration.Model;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the classification of a drone registered by {@code DroneServiceImpl.save}, before it is stored.
+ * <p>
+ * The weight limits cycle through every {@link Model}, so that the branches are not all predicted the same way.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DroneRegistrationBenchmark {
+
+    private static final int WEIGHT_LIMITS = 1024;
+
+    private long[] weightLimits;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        weightLimits = new long[WEIGHT_LIMITS];
+        for (int i = 0; i < WEIGHT_LIMITS; i++) {
+            weightLimits[i] = (i * 7919L) % 500 + 1;
+        }
+    }
+
+    @Benchmark
+    public Model modelFor() {
+        return DroneRegistration.modelFor(nextWeightLimit());
+    }
+
+    @Benchmark
+    public Drone prepare() {
+        return DroneRegistration.prepare(new Drone().serialNumber("benchmark serial").weightLimit(nextWeightLimit()));
+    }
+
+    private long nextWeightLimit() {
+        long weightLimit = weightLimits[next];
+        next = (next + 1) & (WEIGHT_LIMITS - 1);
+        return weightLimit;
+    }
+}
@@ -1,30 +1,67 @@
 package com.yo.aop.logging;
 
+import com.yo.management.MethodMetersService;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.data.repository.Repository;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
- * Aspect for logging execution of service and repository Spring components.
+ * Aspect for logging execution of service and repository Spring components, and timing it.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only runs with the "dev" profile. With {@code application.instrumentation.enabled}, it also runs in
+ * the other profiles and records the time of a sample of the calls in the {@value MethodMetersService#METHOD_METER_NAME}
+ * timers, tagged by class and method. The class is the one of the advised bean, or the repository interface of a Spring
+ * Data repository, rather than the one declaring the method: methods inherited from a shared interface are timed per
+ * bean.
  */
 @Aspect
 public class LoggingAspect {
 
     private final Environment env;
 
+    private final MethodMetersService methodMetersService;
+
+    private final double sampleRate;
+
+    /**
+     * Logger and timer of each advised method, by class of the target, resolved on its first call.
+     */
+    private final Map<Class<?>, Map<Method, MethodInstrumentation>> instrumentations = new ConcurrentHashMap<>();
+
     public LoggingAspect(Environment env) {
+        this(env, null, 0);
+    }
+
+    /**
+     * Create an aspect timing the calls too.
+     *
+     * @param env the environment.
+     * @param methodMetersService the service creating the timers of the methods.
+     * @param sampleRate the fraction of the calls that are timed, between 0 and 1.
+     */
+    public LoggingAspect(Environment env, MethodMetersService methodMetersService, double sampleRate) {
         this.env = env;
+        this.methodMetersService = methodMetersService;
+        this.sampleRate = sampleRate;
     }
 
     /**
@@ -47,6 +84,15 @@ public class LoggingAspect {
         // Method is empty as this is just a Pointcut, the implementations are in the advices.
     }
 
+    /**
+     * Pointcut that matches all Spring Data repositories, which are interface proxies over an implementation of Spring Data
+     * rather than classes of the application's packages.
+     */
+    @Pointcut("target(org.springframework.data.repository.Repository)")
+    public void springDataRepositoryPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
     /**
      * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
      *
@@ -54,7 +100,43 @@ public class LoggingAspect {
      * @return {@link Logger} associated to the given {@link JoinPoint}.
      */
     private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+        return instrumentation(joinPoint).logger;
+    }
+
+    private MethodInstrumentation instrumentation(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object target = joinPoint.getTarget();
+        Class<?> targetClass = target != null ? target.getClass() : method.getDeclaringClass();
+        return instrumentations
+            .computeIfAbsent(targetClass, type -> new ConcurrentHashMap<>())
+            .computeIfAbsent(method, m -> instrument(target != null ? targetType(target) : m.getDeclaringClass(), m));
+    }
+
+    private MethodInstrumentation instrument(Class<?> type, Method method) {
+        Timer timer = null;
+        if (methodMetersService != null && sampleRate > 0) {
+            timer = methodMetersService.methodTimer(type.getSimpleName(), method.getName());
+        }
+        return new MethodInstrumentation(LoggerFactory.getLogger(type), timer);
+    }
+
+    /**
+     * Get the type a call is reported for: the repository interface of a Spring Data repository, whose implementation is
+     * shared by all of them, or else the class of the target.
+     */
+    private static Class<?> targetType(Object target) {
+        if (target instanceof Repository && AopUtils.isAopProxy(target)) {
+            for (Class<?> proxiedInterface : AopProxyUtils.proxiedUserInterfaces(target)) {
+                if (Repository.class.isAssignableFrom(proxiedInterface) && !proxiedInterface.getName().startsWith("org.springframework.")) {
+                    return proxiedInterface;
+                }
+            }
+        }
+        return AopUtils.getTargetClass(target);
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
     }
 
     /**
@@ -63,7 +145,7 @@ public class LoggingAspect {
      * @param joinPoint join point for advice.
      * @param e exception.
      */
-    @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
+    @AfterThrowing(pointcut = "(applicationPackagePointcut() && springBeanPointcut()) || springDataRepositoryPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
             logger(joinPoint)
@@ -91,12 +173,15 @@ public class LoggingAspect {
      * @return result.
      * @throws Throwable throws {@link IllegalArgumentException}.
      */
-    @Around("applicationPackagePointcut() && springBeanPointcut()")
+    @Around("(applicationPackagePointcut() && springBeanPointcut()) || springDataRepositoryPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
+        MethodInstrumentation instrumentation = instrumentation(joinPoint);
+        Logger log = instrumentation.logger;
         if (log.isDebugEnabled()) {
             log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
         }
+        boolean timed = instrumentation.timer != null && isSampled();
+        long start = timed ? System.nanoTime() : 0;
         try {
             Object result = joinPoint.proceed();
             if (log.isDebugEnabled()) {
@@ -106,6 +191,22 @@ public class LoggingAspect {
         } catch (IllegalArgumentException e) {
             log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
             throw e;
+        } finally {
+            if (timed) {
+                instrumentation.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static final class MethodInstrumentation {
+
+        private final Logger logger;
+
+        private final Timer timer;
+
+        private MethodInstrumentation(Logger logger, Timer timer) {
+            this.logger = logger;
+            this.timer = timer;
         }
     }
 }
@@ -1,5 +1,8 @@
 package com.yo.config;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +13,601 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final AsyncLogging asyncLogging = new AsyncLogging();
+
+    private final Battery battery = new Battery();
+
+    private final Cache cache = new Cache();
+
+    private final DispatchCommands dispatchCommands = new DispatchCommands();
+
+    private final DroneLock droneLock = new DroneLock();
+
+    private final Instrumentation instrumentation = new Instrumentation();
+
+    private final MedicationImages medicationImages = new MedicationImages();
+
+    private final OptimisticLock optimisticLock = new OptimisticLock();
+
+    private final Streaming streaming = new Streaming();
+
+    private final TokenCache tokenCache = new TokenCache();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    /**
+     * Settings of the id sequences, keyed by sequence name.
+     */
+    private final Map<String, Sequence> sequences = new LinkedHashMap<>();
+
     // jhipster-needle-application-properties-property
+
+    public AsyncLogging getAsyncLogging() {
+        return asyncLogging;
+    }
+
+    public Battery getBattery() {
+        return battery;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public DispatchCommands getDispatchCommands() {
+        return dispatchCommands;
+    }
+
+    public DroneLock getDroneLock() {
+        return droneLock;
+    }
+
+    public Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    public MedicationImages getMedicationImages() {
+        return medicationImages;
+    }
+
+    public OptimisticLock getOptimisticLock() {
+        return optimisticLock;
+    }
+
+    public Streaming getStreaming() {
+        return streaming;
+    }
+
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public Map<String, Sequence> getSequences() {
+        return sequences;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class AsyncLogging {
+
+        /**
+         * Whether the events of the root logger are written by a worker thread, through a ring buffer.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of events the ring buffer holds, rounded up to a power of two.
+         */
+        private int bufferSize = RingBufferAsyncAppender.DEFAULT_BUFFER_SIZE;
+
+        /**
+         * What to do with an event when the ring buffer is full: drop it, or wait for the worker.
+         */
+        private RingBufferAsyncAppender.OverflowPolicy overflowPolicy = RingBufferAsyncAppender.OverflowPolicy.DROP;
+
+        /**
+         * How long a warning or an error waits for the worker when the ring buffer is full, before it is dropped with the
+         * {@code drop} policy.
+         */
+        private Duration maxWarningWait = RingBufferAsyncAppender.DEFAULT_MAX_WARNING_WAIT;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public RingBufferAsyncAppender.OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(RingBufferAsyncAppender.OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public Duration getMaxWarningWait() {
+            return maxWarningWait;
+        }
+
+        public void setMaxWarningWait(Duration maxWarningWait) {
+            this.maxWarningWait = maxWarningWait;
+        }
+    }
+
+    public static class Battery {
+
+        /**
+         * Maximum age of a cached battery level before it is read again from the database.
+         */
+        private Duration maxStaleness = Duration.ofSeconds(5);
+
+        private final Audit audit = new Audit();
+
+        private final History history = new History();
+
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+
+        public Audit getAudit() {
+            return audit;
+        }
+
+        public History getHistory() {
+            return history;
+        }
+
+        public static class Audit {
+
+            private boolean enabled = true;
+
+            /**
+             * Delay between the end of a sweep and the start of the next one.
+             */
+            private Duration interval = Duration.ofMinutes(1);
+
+            /**
+             * Number of drone ids covered by a single partition of a sweep.
+             */
+            private int partitionSize = 1000;
+
+            /**
+             * Number of partitions swept concurrently, and of threads of the audit pool.
+             */
+            private int parallelism = 4;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getInterval() {
+                return interval;
+            }
+
+            public void setInterval(Duration interval) {
+                this.interval = interval;
+            }
+
+            public int getPartitionSize() {
+                return partitionSize;
+            }
+
+            public void setPartitionSize(int partitionSize) {
+                this.partitionSize = partitionSize;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+        }
+
+        public static class History {
+
+            /**
+             * Delay between two rollup runs.
+             */
+            private Duration rollupInterval = Duration.ofMinutes(1);
+
+            /**
+             * Time left for readings to arrive before their minute bucket is rolled up.
+             */
+            private Duration rollupLag = Duration.ofMinutes(1);
+
+            /**
+             * How long raw readings and minute rollups are kept; hour rollups are kept forever.
+             */
+            private Duration retention = Duration.ofDays(30);
+
+            /**
+             * Number of daily partitions created ahead, on PostgreSQL.
+             */
+            private int partitionsAhead = 7;
+
+            /**
+             * Maximum number of points returned by a history query, also used when a query does not give one.
+             */
+            private int maxPoints = 500;
+
+            public Duration getRollupInterval() {
+                return rollupInterval;
+            }
+
+            public void setRollupInterval(Duration rollupInterval) {
+                this.rollupInterval = rollupInterval;
+            }
+
+            public Duration getRollupLag() {
+                return rollupLag;
+            }
+
+            public void setRollupLag(Duration rollupLag) {
+                this.rollupLag = rollupLag;
+            }
+
+            public Duration getRetention() {
+                return retention;
+            }
+
+            public void setRetention(Duration retention) {
+                this.retention = retention;
+            }
+
+            public int getPartitionsAhead() {
+                return partitionsAhead;
+            }
+
+            public void setPartitionsAhead(int partitionsAhead) {
+                this.partitionsAhead = partitionsAhead;
+            }
+
+            public int getMaxPoints() {
+                return maxPoints;
+            }
+
+            public void setMaxPoints(int maxPoints) {
+                this.maxPoints = maxPoints;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Time to live of the entries of the regions not configured in {@code regions}.
+         */
+        private Duration timeToLive = Duration.ofHours(1);
+
+        /**
+         * Maximum number of entries of the regions not configured in {@code regions}.
+         */
+        private long maxEntries = 1000;
+
+        /**
+         * Settings of specific regions, keyed by region name.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            private Duration timeToLive;
+
+            private Long maxEntries;
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class DispatchCommands {
+
+        /**
+         * How long a completed command is kept, and its idempotency key protects against retries.
+         */
+        private Duration timeToLive = Duration.ofHours(24);
+
+        /**
+         * Maximum number of completed commands kept, beyond which some are dropped before they expire.
+         */
+        private long maxEntries = 10000;
+
+        /**
+         * Maximum number of commands pending or running at once, beyond which new commands are rejected.
+         */
+        private int maxInProgress = 1000;
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getMaxInProgress() {
+            return maxInProgress;
+        }
+
+        public void setMaxInProgress(int maxInProgress) {
+            this.maxInProgress = maxInProgress;
+        }
+    }
+
+    public static class DroneLock {
+
+        /**
+         * Maximum time an operation waits for the lock of a drone before it is rejected.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Instrumentation {
+
+        /**
+         * Whether the calls of the services, repositories and REST resources are timed. Outside of the {@code dev}
+         * profile, they are not advised at all when it is disabled.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Fraction of the calls that are timed, between 0 and 1.
+         */
+        private double sampleRate = 1.0;
+
+        /**
+         * Whether the timers of the calls publish a histogram, from which percentiles are computed across instances.
+         */
+        private boolean percentilesHistogram = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public boolean isPercentilesHistogram() {
+            return percentilesHistogram;
+        }
+
+        public void setPercentilesHistogram(boolean percentilesHistogram) {
+            this.percentilesHistogram = percentilesHistogram;
+        }
+    }
+
+    public static class MedicationImages {
+
+        /**
+         * Directory of the images of the medications, each stored once under the SHA-256 hash of its content.
+         */
+        private String directory = "medication-images";
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    public static class OptimisticLock {
+
+        /**
+         * Maximum number of attempts of an update losing optimistic locking races, the first one included.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Delay in milliseconds before the first retry, doubled and randomized for the next ones.
+         */
+        private long backoffDelay = 20;
+
+        /**
+         * Maximum delay in milliseconds between two retries.
+         */
+        private long maxBackoffDelay = 200;
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getBackoffDelay() {
+            return backoffDelay;
+        }
+
+        public void setBackoffDelay(long backoffDelay) {
+            this.backoffDelay = backoffDelay;
+        }
+
+        public long getMaxBackoffDelay() {
+            return maxBackoffDelay;
+        }
+
+        public void setMaxBackoffDelay(long maxBackoffDelay) {
+            this.maxBackoffDelay = maxBackoffDelay;
+        }
+    }
+
+    public static class Streaming {
+
+        /**
+         * Maximum number of streamed responses written at once, each on a thread of its own; further requests are
+         * rejected with a {@code 503 (Service Unavailable)}.
+         */
+        private int maxConcurrent = 8;
+
+        /**
+         * Time a streamed response may take before it is aborted.
+         */
+        private Duration timeout = Duration.ofMinutes(5);
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class TokenCache {
+
+        /**
+         * Maximum number of validated JWT tokens kept with their authentication, until they expire; 0 disables the
+         * cache.
+         */
+        private long maxEntries = 10000;
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class VirtualThreads {
+
+        /**
+         * Whether requests and {@code @Async} tasks run on virtual threads, on a JDK having them.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Size of the connection pool when running on virtual threads, and maximum number of {@code @Async} tasks
+         * running at once.
+         */
+        private int maxConnections = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+    }
+
+    public static class Sequence {
+
+        /**
+         * Number of ids handed out per sequence call, also used as the increment of the database sequence.
+         */
+        private int allocationSize = 50;
+
+        public int getAllocationSize() {
+            return allocationSize;
+        }
+
+        public void setAllocationSize(int allocationSize) {
+            this.allocationSize = allocationSize;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
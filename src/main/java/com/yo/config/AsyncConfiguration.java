@@ -1,6 +1,10 @@
 package com.yo.config;
 
+import java.util.Optional;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
@@ -9,29 +13,56 @@ import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
 
 @Configuration
 @EnableAsync
 @EnableScheduling
 @Profile("!testdev & !testprod")
-public class AsyncConfiguration implements AsyncConfigurer {
+public class AsyncConfiguration implements AsyncConfigurer, WebMvcConfigurer {
 
     private final Logger log = LoggerFactory.getLogger(AsyncConfiguration.class);
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    /**
+     * Executor of the {@code @Async} tasks on virtual threads, if any: unlike the thread pool, it is not shut down by the
+     * adapter it is wrapped in.
+     */
+    private ExecutorService virtualThreadExecutor;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ApplicationProperties applicationProperties) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        if (applicationProperties.getVirtualThreads().isEnabled()) {
+            Optional<ExecutorService> virtualThreadExecutor = VirtualThreadExecutors.newThreadPerTaskExecutor(
+                taskExecutionProperties.getThreadNamePrefix()
+            );
+            if (virtualThreadExecutor.isPresent()) {
+                int maxConnections = applicationProperties.getVirtualThreads().getMaxConnections();
+                log.debug("Creating Async Task Executor on virtual threads, running up to {} tasks at once", maxConnections);
+                this.virtualThreadExecutor = virtualThreadExecutor.get();
+                // tasks mostly wait for the database, so they are bounded by the connections rather than by threads
+                return new ExceptionHandlingAsyncTaskExecutor(
+                    new TaskExecutorAdapter(VirtualThreadExecutors.limit(this.virtualThreadExecutor, maxConnections))
+                );
+            }
+            log.warn("Virtual threads are not available on Java {}, running Async tasks on a thread pool", Runtime.version());
+        }
         log.debug("Creating Async Task Executor");
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
@@ -41,6 +72,51 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Executor of the asynchronous requests, such as streamed responses, apart from the {@code @Async} tasks: a slow
+     * client holds its thread for as long as it reads.
+     */
+    @Bean(name = "streamingTaskExecutor")
+    public ThreadPoolTaskExecutor getStreamingExecutor() {
+        int maxConcurrent = applicationProperties.getStreaming().getMaxConcurrent();
+        log.debug("Creating Streaming Task Executor, running up to {} responses at once", maxConcurrent);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        // the limit is enforced before a request goes asynchronous, the queue only absorbs threads about to be released
+        executor.setQueueCapacity(maxConcurrent);
+        executor.setThreadNamePrefix("streaming-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(getStreamingExecutor());
+        configurer.setDefaultTimeout(applicationProperties.getStreaming().getTimeout().toMillis());
+        configurer.registerCallableInterceptors(new StreamingConcurrencyLimit(applicationProperties.getStreaming().getMaxConcurrent()));
+    }
+
+    /**
+     * Shut down the virtual threads as the thread pool would be, following {@code spring.task.execution.shutdown}.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (virtualThreadExecutor == null) {
+            return;
+        }
+        log.debug("Shutting down Async Task Executor on virtual threads");
+        TaskExecutionProperties.Shutdown shutdown = taskExecutionProperties.getShutdown();
+        if (!shutdown.isAwaitTermination()) {
+            virtualThreadExecutor.shutdownNow();
+            return;
+        }
+        virtualThreadExecutor.shutdown();
+        long timeout = shutdown.getAwaitTerminationPeriod() != null ? shutdown.getAwaitTerminationPeriod().toMillis() : 0;
+        if (!virtualThreadExecutor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+            log.warn("Async tasks still running on virtual threads after {} ms", timeout);
+        }
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
@@ -5,6 +5,7 @@ import ch.qos.logback.core.pattern.CompositeConverter;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Pattern;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
 import org.springframework.boot.ansi.AnsiColor;
@@ -17,6 +18,7 @@ public class CRLFLogConverter extends CompositeConverter<ILoggingEvent> {
     public static final Marker CRLF_SAFE_MARKER = MarkerFactory.getMarker("CRLF_SAFE");
 
     private static final String[] SAFE_LOGGERS = { "org.hibernate" };
+    private static final Pattern CRLF = Pattern.compile("[\n\r\t]");
     private static final Map<String, AnsiElement> ELEMENTS;
 
     static {
@@ -37,8 +39,21 @@ public class CRLFLogConverter extends CompositeConverter<ILoggingEvent> {
         if ((event.getMarker() != null && event.getMarker().contains(CRLF_SAFE_MARKER)) || isLoggerSafe(event)) {
             return in;
         }
+        if (!containsCrlf(in)) {
+            return in;
+        }
         String replacement = element == null ? "_" : toAnsiString("_", element);
-        return in.replaceAll("[\n\r\t]", replacement);
+        return CRLF.matcher(in).replaceAll(replacement);
+    }
+
+    private static boolean containsCrlf(String in) {
+        for (int i = 0; i < in.length(); i++) {
+            char c = in.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\t') {
+                return true;
+            }
+        }
+        return false;
     }
 
     protected boolean isLoggerSafe(ILoggingEvent event) {
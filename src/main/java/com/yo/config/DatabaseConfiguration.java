@@ -1,8 +1,10 @@
 package com.yo.config;
 
+import com.yo.domain.id.ConfigurableSequenceGenerator;
 import java.sql.SQLException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -27,6 +29,22 @@ public class DatabaseConfiguration {
         this.env = env;
     }
 
+    /**
+     * Hand the allocation sizes of {@code application.sequences} to the id generators of the entities.
+     *
+     * @param applicationProperties the application properties.
+     * @return the Hibernate properties customizer.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sequenceAllocationSizeCustomizer(ApplicationProperties applicationProperties) {
+        return hibernateProperties ->
+            applicationProperties
+                .getSequences()
+                .forEach((name, sequence) ->
+                    hibernateProperties.put(ConfigurableSequenceGenerator.allocationSizeSetting(name), sequence.getAllocationSize())
+                );
+    }
+
     /**
      * Open the TCP port for the H2 database, so it is available remotely.
      *
@@ -1,5 +1,7 @@
 package com.yo.config;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import javax.sql.DataSource;
 import liquibase.integration.spring.SpringLiquibase;
@@ -34,7 +36,8 @@ public class LiquibaseConfiguration {
         @LiquibaseDataSource ObjectProvider<DataSource> liquibaseDataSource,
         LiquibaseProperties liquibaseProperties,
         ObjectProvider<DataSource> dataSource,
-        DataSourceProperties dataSourceProperties
+        DataSourceProperties dataSourceProperties,
+        ApplicationProperties applicationProperties
     ) {
         // If you don't want Liquibase to start asynchronously, substitute by this:
         // SpringLiquibase liquibase = SpringLiquibaseUtil.createSpringLiquibase(liquibaseDataSource.getIfAvailable(), liquibaseProperties, dataSource.getIfUnique(), dataSourceProperties);
@@ -55,7 +58,7 @@ public class LiquibaseConfiguration {
         liquibase.setDatabaseChangeLogTable(liquibaseProperties.getDatabaseChangeLogTable());
         liquibase.setDropFirst(liquibaseProperties.isDropFirst());
         liquibase.setLabels(liquibaseProperties.getLabels());
-        liquibase.setChangeLogParameters(liquibaseProperties.getParameters());
+        liquibase.setChangeLogParameters(changeLogParameters(liquibaseProperties, applicationProperties));
         liquibase.setRollbackFile(liquibaseProperties.getRollbackFile());
         liquibase.setTestRollbackOnUpdate(liquibaseProperties.isTestRollbackOnUpdate());
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_NO_LIQUIBASE))) {
@@ -66,4 +69,22 @@ public class LiquibaseConfiguration {
         }
         return liquibase;
     }
+
+    /**
+     * Add the allocation sizes of {@code application.sequences} to the changelog parameters, as
+     * {@code <sequence_name>.allocationSize}, so that the database sequences increment by the same amount.
+     */
+    private static Map<String, String> changeLogParameters(
+        LiquibaseProperties liquibaseProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        Map<String, String> parameters = new HashMap<>();
+        applicationProperties
+            .getSequences()
+            .forEach((name, sequence) -> parameters.put(name + ".allocationSize", String.valueOf(sequence.getAllocationSize())));
+        if (liquibaseProperties.getParameters() != null) {
+            parameters.putAll(liquibaseProperties.getParameters());
+        }
+        return parameters;
+    }
 }
@@ -1,6 +1,10 @@
 package com.yo.config;
 
 import com.yo.aop.logging.LoggingAspect;
+import com.yo.management.MethodMetersService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -9,9 +13,33 @@ import tech.jhipster.config.JHipsterConstants;
 @EnableAspectJAutoProxy
 public class LoggingAspectConfiguration {
 
+    /**
+     * The aspect is only registered when it has something to do, so that the calls are not advised otherwise.
+     */
     @Bean
-    @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    @Conditional(LoggingAspectCondition.class)
+    public LoggingAspect loggingAspect(
+        Environment env,
+        ApplicationProperties applicationProperties,
+        ObjectProvider<MethodMetersService> methodMetersService
+    ) {
+        ApplicationProperties.Instrumentation instrumentation = applicationProperties.getInstrumentation();
+        if (!instrumentation.isEnabled()) {
+            return new LoggingAspect(env);
+        }
+        return new LoggingAspect(env, methodMetersService.getObject(), instrumentation.getSampleRate());
+    }
+
+    static class LoggingAspectCondition extends AnyNestedCondition {
+
+        LoggingAspectCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
+        static class DevelopmentProfile {}
+
+        @ConditionalOnProperty(prefix = "application.instrumentation", name = "enabled", havingValue = "true")
+        static class InstrumentationEnabled {}
     }
 }
@@ -2,10 +2,19 @@ package com.yo.config;
 
 import static tech.jhipster.config.logging.LoggingUtils.*;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.spi.ContextAwareBase;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yo.management.LoggingMetersService;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
@@ -19,10 +28,14 @@ import tech.jhipster.config.JHipsterProperties;
 @Configuration
 public class LoggingConfiguration {
 
+    private static final String RING_BUFFER_APPENDER_NAME = "RING_BUFFER";
+
     public LoggingConfiguration(
         @Value("${spring.application.name}") String appName,
         @Value("${server.port}") String serverPort,
         JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        LoggingMetersService loggingMetersService,
         ObjectMapper mapper
     ) throws JsonProcessingException {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
@@ -44,5 +57,90 @@ public class LoggingConfiguration {
         if (loggingProperties.isUseJsonFormat() || logstashProperties.isEnabled()) {
             addContextListener(context, customFields, loggingProperties);
         }
+        ApplicationProperties.AsyncLogging asyncLoggingProperties = applicationProperties.getAsyncLogging();
+        if (asyncLoggingProperties.isEnabled()) {
+            // after the listener of the appenders above, so that they are wrapped again once it added them back
+            RingBufferListener listener = new RingBufferListener(asyncLoggingProperties, loggingMetersService);
+            listener.setContext(context);
+            context.addListener(listener);
+            listener.addRingBufferAppender(context);
+        }
+    }
+
+    /**
+     * Moves the appenders of the root logger behind a {@link RingBufferAsyncAppender}, when the application starts and
+     * each time the logging context is reset.
+     */
+    private static class RingBufferListener extends ContextAwareBase implements LoggerContextListener {
+
+        private final ApplicationProperties.AsyncLogging asyncLoggingProperties;
+
+        private final LoggingMetersService loggingMetersService;
+
+        private RingBufferListener(ApplicationProperties.AsyncLogging asyncLoggingProperties, LoggingMetersService loggingMetersService) {
+            this.asyncLoggingProperties = asyncLoggingProperties;
+            this.loggingMetersService = loggingMetersService;
+        }
+
+        void addRingBufferAppender(LoggerContext context) {
+            Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+            List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+            rootLogger.iteratorForAppenders().forEachRemaining(appenders::add);
+            if (appenders.isEmpty() || rootLogger.getAppender(RING_BUFFER_APPENDER_NAME) != null) {
+                return;
+            }
+
+            RingBufferAsyncAppender ringBufferAppender = new RingBufferAsyncAppender();
+            ringBufferAppender.setContext(context);
+            ringBufferAppender.setName(RING_BUFFER_APPENDER_NAME);
+            ringBufferAppender.setBufferSize(asyncLoggingProperties.getBufferSize());
+            ringBufferAppender.setOverflowPolicy(asyncLoggingProperties.getOverflowPolicy());
+            ringBufferAppender.setMaxWarningWait(asyncLoggingProperties.getMaxWarningWait());
+            ringBufferAppender.setOverflowListener(
+                new RingBufferAsyncAppender.OverflowListener() {
+                    @Override
+                    public void dropped(ILoggingEvent event) {
+                        loggingMetersService.trackDropped(event.getLevel());
+                    }
+
+                    @Override
+                    public void blocked(ILoggingEvent event) {
+                        loggingMetersService.trackBlocked();
+                    }
+                }
+            );
+            appenders.forEach(ringBufferAppender::addAppender);
+            ringBufferAppender.start();
+            loggingMetersService.trackBuffer(ringBufferAppender::getBufferedCount);
+
+            // the appenders are detached once the ring buffer writes to them, so that no event is lost meanwhile
+            rootLogger.addAppender(ringBufferAppender);
+            appenders.forEach(rootLogger::detachAppender);
+        }
+
+        @Override
+        public boolean isResetResistant() {
+            return true;
+        }
+
+        @Override
+        public void onStart(LoggerContext context) {
+            addRingBufferAppender(context);
+        }
+
+        @Override
+        public void onReset(LoggerContext context) {
+            addRingBufferAppender(context);
+        }
+
+        @Override
+        public void onStop(LoggerContext context) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onLevelChange(Logger logger, Level level) {
+            // Nothing to do.
+        }
     }
 }
@@ -0,0 +1,64 @@
+package com.yo.config;
+
+import com.yo.management.OptimisticLockMetersService;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.retry.annotation.RetryConfiguration;
+import org.springframework.retry.listener.RetryListenerSupport;
+
+/**
+ * Retries of the updates losing optimistic locking races, and the meters of these races.
+ */
+@Configuration
+@EnableRetry
+public class OptimisticLockConfiguration {
+
+    /**
+     * Order of the retry advice: before the transaction advice, so that every attempt runs in a new transaction.
+     */
+    public static final int RETRY_ADVICE_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    /**
+     * Order the retry advice with {@link #RETRY_ADVICE_ORDER}. The order is set on the bean definition, as the advisors
+     * are instantiated before any bean post processor is registered: the retry advisor would otherwise keep the same
+     * order as the transaction advisor, and run inside or outside of it depending on their registration order.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor retryAdviceOrderPostProcessor() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanNamesForType(RetryConfiguration.class, true, false)) {
+                beanFactory.getBeanDefinition(beanName).getPropertyValues().add("order", RETRY_ADVICE_ORDER);
+            }
+        };
+    }
+
+    /**
+     * Count the conflicts of the operations retried on optimistic locking failures, and the retries they cause.
+     * Conflicts with the version sent by a client are counted too, though not retried.
+     */
+    @Bean
+    public RetryListener optimisticLockRetryListener(OptimisticLockMetersService metersService, ApplicationProperties applicationProperties) {
+        int maxAttempts = applicationProperties.getOptimisticLock().getMaxAttempts();
+        return new RetryListenerSupport() {
+            @Override
+            public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+                if (!(throwable instanceof ConcurrencyFailureException)) {
+                    return;
+                }
+                String operation = String.valueOf(context.getAttribute(RetryContext.NAME));
+                metersService.trackConflict(operation);
+                if (throwable instanceof OptimisticLockingFailureException && context.getRetryCount() < maxAttempts) {
+                    metersService.trackRetry(operation);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,332 @@
+package com.yo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appender handing the events over to its attached appenders on a single worker thread, through a ring buffer allocated
+ * once.
+ * <p>
+ * The logging thread only prepares the event and publishes it in a slot of the buffer; the encoding, the CRLF
+ * sanitization and the writes are done by the worker. When the buffer is full, the event is dropped or the logging
+ * thread waits for a free slot, depending on the {@link OverflowPolicy}; warnings and errors are always waited for, up
+ * to {@link #setMaxWarningWait the given time} when events may be dropped. Events logged by the worker itself are never
+ * waited for, so that an attached appender logging cannot block it.
+ * <p>
+ * The buffer is a bounded multi-producer queue: each slot holds the sequence at which it can next be written, then
+ * read, so that producers claim slots with a single compare-and-set and the worker reads them without locking.
+ */
+public class RingBufferAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+    /**
+     * What to do with an event when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The event is dropped and reported to the {@link OverflowListener}, unless it is a warning or an error: the
+         * logging thread then waits for a slot, for a bounded time.
+         */
+        DROP,
+        /**
+         * The logging thread waits until the worker frees a slot.
+         */
+        BLOCK,
+    }
+
+    /**
+     * Notified of the events that could not be buffered right away, on the logging thread.
+     */
+    public interface OverflowListener {
+        void dropped(ILoggingEvent event);
+
+        void blocked(ILoggingEvent event);
+    }
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    public static final Duration DEFAULT_MAX_WARNING_WAIT = Duration.ofSeconds(1);
+
+    /**
+     * Time given to the worker to write the buffered events when the appender is stopped.
+     */
+    private static final long MAX_FLUSH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final int SPINS = 100;
+
+    private static final OverflowListener NO_LISTENER = new OverflowListener() {
+        @Override
+        public void dropped(ILoggingEvent event) {}
+
+        @Override
+        public void blocked(ILoggingEvent event) {}
+    };
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    private OverflowListener overflowListener = NO_LISTENER;
+
+    private long maxWarningWaitNanos = DEFAULT_MAX_WARNING_WAIT.toNanos();
+
+    private ILoggingEvent[] events;
+
+    private AtomicLongArray sequences;
+
+    private int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next sequence read by the worker, only written by it.
+     */
+    private volatile long head;
+
+    private volatile boolean sleeping;
+
+    private volatile Thread worker;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowListener(OverflowListener overflowListener) {
+        this.overflowListener = overflowListener != null ? overflowListener : NO_LISTENER;
+    }
+
+    /**
+     * Set how long a warning or an error waits for a slot when the buffer is full and events may be dropped, before it is
+     * dropped too.
+     *
+     * @param maxWarningWait the maximum wait.
+     */
+    public void setMaxWarningWait(Duration maxWarningWait) {
+        this.maxWarningWaitNanos = maxWarningWait.toNanos();
+    }
+
+    public Duration getMaxWarningWait() {
+        return Duration.ofNanos(maxWarningWaitNanos);
+    }
+
+    /**
+     * Get the number of events waiting for the worker.
+     *
+     * @return the number of buffered events.
+     */
+    public int getBufferedCount() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * Get the number of events dropped since the appender was started.
+     *
+     * @return the number of dropped events.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (bufferSize < 1) {
+            addError("Invalid buffer size " + bufferSize);
+            return;
+        }
+        // rounded up to a power of two, so that the slot of a sequence is found with a mask
+        int capacity = bufferSize <= 2 ? 2 : Integer.highestOneBit(bufferSize - 1) << 1;
+        events = new ILoggingEvent[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+        tail.set(0);
+        head = 0;
+        droppedCount.set(0);
+        Thread thread = new Thread(this::drain, "logging-" + getName());
+        thread.setDaemon(true);
+        worker = thread;
+        super.start();
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        Thread thread = worker;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.NANOSECONDS.toMillis(MAX_FLUSH_NANOS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            addWarn("Could not write " + getBufferedCount() + " buffered events before stopping");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        boolean fromWorker = Thread.currentThread() == worker;
+        boolean bounded = overflowPolicy == OverflowPolicy.DROP;
+        boolean blocked = false;
+        long deadline = 0;
+        int spins = 0;
+        while (!offer(event)) {
+            if (
+                (bounded && !event.getLevel().isGreaterOrEqual(Level.WARN)) ||
+                fromWorker ||
+                !isStarted() ||
+                (blocked && bounded && System.nanoTime() - deadline > 0)
+            ) {
+                droppedCount.incrementAndGet();
+                overflowListener.dropped(event);
+                return;
+            }
+            if (!blocked) {
+                blocked = true;
+                deadline = System.nanoTime() + maxWarningWaitNanos;
+                overflowListener.blocked(event);
+            }
+            if (spins++ < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, BLOCKED_PARK_NANOS);
+            }
+        }
+        if (sleeping) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private boolean offer(ILoggingEvent event) {
+        long sequence = tail.get();
+        while (true) {
+            int slot = (int) sequence & mask;
+            long available = sequences.get(slot);
+            if (available == sequence) {
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    events[slot] = event;
+                    // publishes the event to the worker
+                    sequences.set(slot, sequence + 1);
+                    return true;
+                }
+                sequence = tail.get();
+            } else if (available < sequence) {
+                // the slot still holds the event written one lap earlier
+                return false;
+            } else {
+                sequence = tail.get();
+            }
+        }
+    }
+
+    private void drain() {
+        int capacity = mask + 1;
+        long next = head;
+        long flushDeadline = 0;
+        int spins = 0;
+        while (true) {
+            int slot = (int) next & mask;
+            if (sequences.get(slot) == next + 1) {
+                ILoggingEvent event = events[slot];
+                events[slot] = null;
+                // frees the slot for the next lap
+                sequences.set(slot, next + capacity);
+                head = ++next;
+                spins = 0;
+                appenders.appendLoopOnAppenders(event);
+            } else if (!isStarted()) {
+                // written by the producers that saw the appender started, until the buffer is empty
+                if (flushDeadline == 0) {
+                    flushDeadline = System.nanoTime() + MAX_FLUSH_NANOS;
+                }
+                if (tail.get() == next || System.nanoTime() - flushDeadline > 0) {
+                    return;
+                }
+                Thread.onSpinWait();
+            } else if (spins++ < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                sleeping = true;
+                if (sequences.get(slot) != next + 1 && isStarted()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                sleeping = false;
+            }
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
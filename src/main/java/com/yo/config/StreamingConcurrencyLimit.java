@@ -0,0 +1,72 @@
+package com.yo.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Limit of the asynchronous requests, such as streamed responses, processed at once.
+ * <p>
+ * A request over the limit is rejected before its processing starts, so that it gets a plain
+ * {@code 503 (Service Unavailable)} rather than a rejection from the executor once the response went asynchronous. The
+ * permit of a request is released once its task ran, or when its processing completes, times out or fails, even if its
+ * task never ran.
+ */
+class StreamingConcurrencyLimit implements CallableProcessingInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = StreamingConcurrencyLimit.class.getName() + ".PERMIT";
+
+    private final Logger log = LoggerFactory.getLogger(StreamingConcurrencyLimit.class);
+
+    private final int maxConcurrent;
+
+    private final Semaphore permits;
+
+    StreamingConcurrencyLimit(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (!permits.tryAcquire()) {
+            log.warn("Rejecting a streamed response, {} already running", maxConcurrent);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many streamed responses");
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new AtomicBoolean(), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * Release the permit as soon as the response is written, rather than once the container completes the request.
+     */
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        release(request);
+    }
+
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        release(request);
+    }
+
+    private void release(NativeWebRequest request) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (permit instanceof AtomicBoolean && ((AtomicBoolean) permit).compareAndSet(false, true)) {
+            permits.release();
+        }
+    }
+
+    /**
+     * @return the number of requests that can still start.
+     */
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+}
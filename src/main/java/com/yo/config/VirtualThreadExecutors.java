@@ -0,0 +1,74 @@
+package com.yo.config;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executors running their tasks on virtual threads, looked up reflectively since the application is compiled for
+ * Java 11. Virtual threads are available from Java 21, or on Java 19 and 20 with {@code --enable-preview}.
+ */
+final class VirtualThreadExecutors {
+
+    private VirtualThreadExecutors() {}
+
+    /**
+     * @return whether the running JDK has virtual threads.
+     */
+    static boolean isAvailable() {
+        return newThreadFactory("").isPresent();
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for each task.
+     *
+     * @param namePrefix the prefix of the names of the threads, followed by a counter.
+     * @return the executor, or empty if the running JDK has no virtual threads.
+     */
+    static Optional<ExecutorService> newThreadPerTaskExecutor(String namePrefix) {
+        return newThreadFactory(namePrefix)
+            .map(threadFactory -> {
+                try {
+                    return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create a virtual thread executor", e);
+                }
+            });
+    }
+
+    /**
+     * Limit the number of tasks running at once on an executor. Tasks over the limit wait in their own thread, which
+     * is cheap for a virtual thread, rather than blocking the caller.
+     *
+     * @param executor the executor.
+     * @param maxConcurrency the maximum number of tasks running at once.
+     * @return the limited executor.
+     */
+    static Executor limit(Executor executor, int maxConcurrency) {
+        Semaphore permits = new Semaphore(maxConcurrency, true);
+        return task ->
+            executor.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+    }
+
+    private static Optional<ThreadFactory> newThreadFactory(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException e) {
+            // missing before Java 19, or disabled without --enable-preview on Java 19 and 20
+            return Optional.empty();
+        }
+    }
+}
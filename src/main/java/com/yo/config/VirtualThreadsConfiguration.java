@@ -0,0 +1,66 @@
+package com.yo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Run the requests on virtual threads rather than on the Undertow worker threads, when
+ * {@code application.virtual-threads.enabled} is set and the JDK has virtual threads.
+ * <p>
+ * Requests are then no longer bounded by a number of threads, so the connection pool bounds their use of the database
+ * instead: it is sized to {@code application.virtual-threads.max-connections}, and requests wait for a connection
+ * rather than for a worker thread. {@code @Async} tasks are moved to virtual threads by {@link AsyncConfiguration}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+    private static final String REQUEST_THREAD_NAME_PREFIX = "drone-request-";
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> virtualThreadsUndertowCustomizer() {
+        return factory ->
+            VirtualThreadExecutors
+                .newThreadPerTaskExecutor(REQUEST_THREAD_NAME_PREFIX)
+                .ifPresentOrElse(
+                    executor -> {
+                        log.info("Running requests on virtual threads");
+                        factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(executor));
+                    },
+                    () -> log.warn("Virtual threads are not available on Java {}, running requests on worker threads", Runtime.version())
+                );
+    }
+
+    /**
+     * Size the connection pool for virtual threads, before it starts.
+     */
+    @Bean
+    public static BeanPostProcessor virtualThreadsConnectionPoolPostProcessor(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource && VirtualThreadExecutors.isAvailable()) {
+                    int maxConnections = Binder
+                        .get(env)
+                        .bind("application.virtual-threads", ApplicationProperties.VirtualThreads.class)
+                        .orElseGet(ApplicationProperties.VirtualThreads::new)
+                        .getMaxConnections();
+                    log.info("Sizing the connection pool to {} connections for virtual threads", maxConnections);
+                    ((HikariDataSource) bean).setMaximumPoolSize(maxConnections);
+                }
+                return bean;
+            }
+        };
+    }
+}
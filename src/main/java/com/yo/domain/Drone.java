@@ -1,28 +1,52 @@
 package com.yo.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.util.StdConverter;
 import com.yo.domain.enumeration.Model;
 import com.yo.domain.enumeration.State;
+import com.yo.domain.id.ConfigurableSequenceGenerator;
 import java.io.Serializable;
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import javax.persistence.*;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Size;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * A Drone.
  */
 @Entity
 @Table(name = "drone")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Drone implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "droneSequenceGenerator")
+    @GenericGenerator(
+        name = "droneSequenceGenerator",
+        strategy = ConfigurableSequenceGenerator.STRATEGY,
+        parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "drone_sequence"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+        }
+    )
     @Column(name = "id")
     private Long id;
 
@@ -46,9 +70,40 @@ public class Drone implements Serializable {
     @Column(name = "state")
     private State state;
 
+    /**
+     * Sum of the weights of the loaded medications, maintained by conditional updates in the repository.
+     */
+    @Column(name = "loaded_weight", insertable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long loadedWeight;
+
+    /**
+     * Version of the row, checked by every update of the drone so that concurrent edits are detected.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * Manifest of the medications loaded onto the drone, indexed by id.
+     * <p>
+     * Medications share a single hash code so that it does not change when they are persisted, which would put every one
+     * of them in the same bucket of a {@code HashSet}: they are indexed by their id instead. Medications that do not have
+     * an id yet are kept apart in {@link #unsavedMedications}, and the two are read together through {@link #getMedications()}.
+     */
     @OneToMany(mappedBy = "drone")
-    @JsonIgnoreProperties(value = { "drone" }, allowSetters = true)
-    private Set<Medication> medications = new HashSet<>();
+    @MapKey(name = "id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    private Map<Long, Medication> medications = new HashMap<>();
+
+    /**
+     * Medications added to the manifest before they had an id, told apart by identity until they are indexed.
+     */
+    @Transient
+    private Set<Medication> unsavedMedications = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @Transient
+    private final MedicationManifest medicationManifest = new MedicationManifest();
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
@@ -130,18 +185,53 @@ public class Drone implements Serializable {
         this.state = state;
     }
 
+    public Long getLoadedWeight() {
+        return this.loadedWeight;
+    }
+
+    public Drone loadedWeight(Long loadedWeight) {
+        this.setLoadedWeight(loadedWeight);
+        return this;
+    }
+
+    public void setLoadedWeight(Long loadedWeight) {
+        this.loadedWeight = loadedWeight;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Drone version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Get the medications loaded onto the drone.
+     * <p>
+     * The set is a view of the manifest: adding, removing and finding a medication take constant time. It is written to
+     * JSON as {@code null} when the medications were not fetched with the drone.
+     *
+     * @return the medications of the drone.
+     */
+    @JsonIgnoreProperties(value = { "drone" }, allowSetters = true)
+    @JsonSerialize(converter = NotFetchedAsNull.class)
     public Set<Medication> getMedications() {
-        return this.medications;
+        return this.medicationManifest;
     }
 
     public void setMedications(Set<Medication> medications) {
-        if (this.medications != null) {
-            this.medications.forEach(i -> i.setDrone(null));
-        }
+        this.medicationManifest.forEach(i -> i.setDrone(null));
+        this.medications = new HashMap<>();
+        this.unsavedMedications = Collections.newSetFromMap(new IdentityHashMap<>());
         if (medications != null) {
-            medications.forEach(i -> i.setDrone(this));
+            medications.forEach(this::addMedication);
         }
-        this.medications = medications;
     }
 
     public Drone medications(Set<Medication> medications) {
@@ -150,17 +240,31 @@ public class Drone implements Serializable {
     }
 
     public Drone addMedication(Medication medication) {
-        this.medications.add(medication);
+        this.medicationManifest.add(medication);
         medication.setDrone(this);
         return this;
     }
 
     public Drone removeMedication(Medication medication) {
-        this.medications.remove(medication);
+        this.medicationManifest.remove(medication);
         medication.setDrone(null);
         return this;
     }
 
+    /**
+     * Find a medication of the drone by its id.
+     *
+     * @param medicationId the id of the medication.
+     * @return the medication, or {@code null} if it is not loaded onto the drone.
+     */
+    public Medication findMedication(Long medicationId) {
+        if (medicationId == null) {
+            return null;
+        }
+        this.medicationManifest.indexSavedMedications();
+        return this.medications.get(medicationId);
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -190,6 +294,132 @@ public class Drone implements Serializable {
             ", weightLimit=" + getWeightLimit() +
             ", batteryCapacity=" + getBatteryCapacity() +
             ", state='" + getState() + "'" +
+            ", loadedWeight=" + getLoadedWeight() +
+            ", version=" + getVersion() +
             "}";
     }
+
+    /**
+     * Set view of the medications of the drone, over the index by id and the medications without an id.
+     */
+    private final class MedicationManifest extends AbstractSet<Medication> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int size() {
+            return medications.size() + unsavedMedications.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Medication)) {
+                return false;
+            }
+            Medication medication = (Medication) o;
+            if (medication.getId() == null) {
+                return unsavedMedications.contains(medication);
+            }
+            indexSavedMedications();
+            return medications.containsKey(medication.getId());
+        }
+
+        @Override
+        public boolean add(Medication medication) {
+            if (medication.getId() == null) {
+                return unsavedMedications.add(medication);
+            }
+            indexSavedMedications();
+            return medications.put(medication.getId(), medication) == null;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Medication)) {
+                return false;
+            }
+            Medication medication = (Medication) o;
+            if (medication.getId() == null) {
+                return unsavedMedications.remove(medication);
+            }
+            indexSavedMedications();
+            return medications.remove(medication.getId()) != null;
+        }
+
+        @Override
+        public void clear() {
+            medications.clear();
+            unsavedMedications.clear();
+        }
+
+        @Override
+        public Iterator<Medication> iterator() {
+            indexSavedMedications();
+            if (unsavedMedications.isEmpty()) {
+                return medications.values().iterator();
+            }
+            Iterator<Medication> saved = medications.values().iterator();
+            Iterator<Medication> unsaved = unsavedMedications.iterator();
+            return new Iterator<>() {
+                private Iterator<Medication> last;
+
+                @Override
+                public boolean hasNext() {
+                    return saved.hasNext() || unsaved.hasNext();
+                }
+
+                @Override
+                public Medication next() {
+                    last = saved.hasNext() ? saved : unsaved;
+                    if (!last.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return last.next();
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    last.remove();
+                }
+            };
+        }
+
+        /**
+         * Move the medications that were given an id since they were added into the index, each of them once.
+         */
+        void indexSavedMedications() {
+            if (unsavedMedications.isEmpty()) {
+                return;
+            }
+            for (Iterator<Medication> it = unsavedMedications.iterator(); it.hasNext();) {
+                Medication medication = it.next();
+                if (medication.getId() != null) {
+                    medications.put(medication.getId(), medication);
+                    it.remove();
+                }
+            }
+        }
+
+        boolean isFetched() {
+            return Hibernate.isInitialized(medications);
+        }
+    }
+
+    /**
+     * Writes {@code null} for the medications of a drone when they were not fetched, as Hibernate5Module does for the
+     * other lazy associations, which the manifest is not one of.
+     */
+    static final class NotFetchedAsNull extends StdConverter<Set<Medication>, Set<Medication>> {
+
+        @Override
+        public Set<Medication> convert(Set<Medication> medications) {
+            if (medications instanceof MedicationManifest && !((MedicationManifest) medications).isFetched()) {
+                return null;
+            }
+            return medications;
+        }
+    }
 }
@@ -1,24 +1,38 @@
 package com.yo.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.yo.domain.id.ConfigurableSequenceGenerator;
 import java.io.Serializable;
 import javax.persistence.*;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Pattern;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * A Medication.
  */
 @Entity
 @Table(name = "medication")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Medication implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medicationSequenceGenerator")
+    @GenericGenerator(
+        name = "medicationSequenceGenerator",
+        strategy = ConfigurableSequenceGenerator.STRATEGY,
+        parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "medication_sequence"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+        }
+    )
     @Column(name = "id")
     private Long id;
 
@@ -36,6 +50,13 @@ public class Medication implements Serializable {
     @Column(name = "image")
     private String image;
 
+    /**
+     * Version of the row, checked by every update of the medication so that concurrent edits are detected.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne
     @JsonIgnoreProperties(value = { "medications" }, allowSetters = true)
     private Drone drone;
@@ -107,6 +128,19 @@ public class Medication implements Serializable {
         this.image = image;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Medication version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Drone getDrone() {
         return this.drone;
     }
@@ -148,6 +182,7 @@ public class Medication implements Serializable {
             ", weght=" + getWeght() +
             ", code='" + getCode() + "'" +
             ", image='" + getImage() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -0,0 +1,49 @@
+package com.yo.domain.id;
+
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Sequence generator handing out blocks of ids with the pooled-lo optimizer, sized by the Hibernate setting
+ * {@code com.yo.id.<sequence_name>.allocation_size}.
+ * <p>
+ * Each database sequence value is the first id of a block, so a single sequence call covers a whole block of inserts.
+ * The increment of the database sequence must match the allocation size: Hibernate refuses to start when they differ.
+ */
+public class ConfigurableSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "com.yo.domain.id.ConfigurableSequenceGenerator";
+
+    public static final String ALLOCATION_SIZE_SETTING_PREFIX = "com.yo.id.";
+
+    public static final String ALLOCATION_SIZE_SETTING_SUFFIX = ".allocation_size";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        String sequenceName = params.getProperty(SEQUENCE_PARAM);
+        Object allocationSize = serviceRegistry
+            .getService(ConfigurationService.class)
+            .getSettings()
+            .get(allocationSizeSetting(sequenceName));
+        if (allocationSize != null) {
+            params.setProperty(INCREMENT_PARAM, allocationSize.toString());
+        }
+        params.putIfAbsent(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+
+    /**
+     * Get the name of the Hibernate setting holding the allocation size of a sequence.
+     *
+     * @param sequenceName the name of the sequence.
+     * @return the name of the setting.
+     */
+    public static String allocationSizeSetting(String sequenceName) {
+        return ALLOCATION_SIZE_SETTING_PREFIX + sequenceName + ALLOCATION_SIZE_SETTING_SUFFIX;
+    }
+}
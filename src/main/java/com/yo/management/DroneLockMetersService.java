@@ -0,0 +1,62 @@
+package com.yo.management;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DroneLockMetersService {
+
+    public static final String WAITING_METER_NAME = "drone.lock.waiting";
+    public static final String WAITING_METER_DESCRIPTION = "Indicates the number of operations waiting for the lock of a drone.";
+
+    public static final String QUEUE_DEPTH_METER_NAME = "drone.lock.queue-depth";
+    public static final String QUEUE_DEPTH_METER_DESCRIPTION =
+        "Indicates the number of operations holding or waiting for the lock of a drone when another one asks for it.";
+    public static final String QUEUE_DEPTH_METER_BASE_UNIT = "operations";
+
+    public static final String WAIT_METER_NAME = "drone.lock.wait";
+    public static final String WAIT_METER_DESCRIPTION = "Indicates the time spent waiting for the lock of a drone.";
+    public static final String WAIT_METER_OUTCOME_DIMENSION = "outcome";
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final DistributionSummary queueDepthSummary;
+    private final Timer acquiredTimer;
+    private final Timer timedOutTimer;
+
+    public DroneLockMetersService(MeterRegistry registry) {
+        Gauge.builder(WAITING_METER_NAME, waiting, AtomicInteger::get).description(WAITING_METER_DESCRIPTION).register(registry);
+        this.queueDepthSummary =
+            DistributionSummary
+                .builder(QUEUE_DEPTH_METER_NAME)
+                .baseUnit(QUEUE_DEPTH_METER_BASE_UNIT)
+                .description(QUEUE_DEPTH_METER_DESCRIPTION)
+                .register(registry);
+        this.acquiredTimer = waitTimerForOutcomeBuilder("acquired").register(registry);
+        this.timedOutTimer = waitTimerForOutcomeBuilder("timed-out").register(registry);
+    }
+
+    private Timer.Builder waitTimerForOutcomeBuilder(String outcome) {
+        return Timer.builder(WAIT_METER_NAME).description(WAIT_METER_DESCRIPTION).tag(WAIT_METER_OUTCOME_DIMENSION, outcome);
+    }
+
+    public void trackQueued(int queueDepth) {
+        this.waiting.incrementAndGet();
+        this.queueDepthSummary.record(queueDepth);
+    }
+
+    public void trackAcquired(long waitNanos) {
+        this.waiting.decrementAndGet();
+        this.acquiredTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackTimedOut(long waitNanos) {
+        this.waiting.decrementAndGet();
+        this.timedOutTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,73 @@
+package com.yo.management;
+
+import ch.qos.logback.classic.Level;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LoggingMetersService {
+
+    public static final String DROPPED_METER_NAME = "logging.async.dropped";
+    public static final String DROPPED_METER_DESCRIPTION = "Indicates the number of log events dropped because the log buffer was full.";
+    public static final String DROPPED_METER_LEVEL_DIMENSION = "level";
+
+    public static final String BLOCKED_METER_NAME = "logging.async.blocked";
+    public static final String BLOCKED_METER_DESCRIPTION =
+        "Indicates the number of log events whose thread waited for room in the full log buffer.";
+
+    public static final String BUFFERED_METER_NAME = "logging.async.buffered";
+    public static final String BUFFERED_METER_DESCRIPTION = "Indicates the number of log events waiting to be written.";
+    public static final String BUFFERED_METER_BASE_UNIT = "events";
+
+    private static final Level[] LEVELS = { Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG, Level.TRACE };
+
+    private final Map<Level, Counter> droppedCounters = new HashMap<>();
+
+    private final Counter blockedCounter;
+
+    private volatile IntSupplier buffered = () -> 0;
+
+    public LoggingMetersService(MeterRegistry registry) {
+        for (Level level : LEVELS) {
+            droppedCounters.put(
+                level,
+                Counter
+                    .builder(DROPPED_METER_NAME)
+                    .description(DROPPED_METER_DESCRIPTION)
+                    .tag(DROPPED_METER_LEVEL_DIMENSION, level.toString())
+                    .register(registry)
+            );
+        }
+        this.blockedCounter = Counter.builder(BLOCKED_METER_NAME).description(BLOCKED_METER_DESCRIPTION).register(registry);
+        Gauge
+            .builder(BUFFERED_METER_NAME, this, service -> service.buffered.getAsInt())
+            .description(BUFFERED_METER_DESCRIPTION)
+            .baseUnit(BUFFERED_METER_BASE_UNIT)
+            .register(registry);
+    }
+
+    public void trackDropped(Level level) {
+        Counter counter = this.droppedCounters.get(level);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    public void trackBlocked() {
+        this.blockedCounter.increment();
+    }
+
+    /**
+     * Read the number of buffered events from the log buffer currently in use.
+     *
+     * @param buffered the number of events of the log buffer.
+     */
+    public void trackBuffer(IntSupplier buffered) {
+        this.buffered = buffered;
+    }
+}
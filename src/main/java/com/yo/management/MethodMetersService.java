@@ -0,0 +1,42 @@
+package com.yo.management;
+
+import com.yo.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MethodMetersService {
+
+    public static final String METHOD_METER_NAME = "method.timed";
+    public static final String METHOD_METER_DESCRIPTION =
+        "Indicates the time spent in the calls of the services, repositories and REST resources, for the sampled calls.";
+    public static final String METHOD_METER_CLASS_DIMENSION = "class";
+    public static final String METHOD_METER_METHOD_DIMENSION = "method";
+
+    private final MeterRegistry registry;
+
+    private final boolean percentilesHistogram;
+
+    public MethodMetersService(MeterRegistry registry, ApplicationProperties applicationProperties) {
+        this.registry = registry;
+        this.percentilesHistogram = applicationProperties.getInstrumentation().isPercentilesHistogram();
+    }
+
+    /**
+     * Get the timer of the calls of a method, to be kept by the caller rather than looked up on each call.
+     *
+     * @param className the simple name of the class declaring the method.
+     * @param methodName the name of the method.
+     * @return the timer.
+     */
+    public Timer methodTimer(String className, String methodName) {
+        return Timer
+            .builder(METHOD_METER_NAME)
+            .description(METHOD_METER_DESCRIPTION)
+            .tag(METHOD_METER_CLASS_DIMENSION, className)
+            .tag(METHOD_METER_METHOD_DIMENSION, methodName)
+            .publishPercentileHistogram(percentilesHistogram)
+            .register(registry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.yo.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+@Service
+public class OptimisticLockMetersService {
+
+    public static final String CONFLICTS_METER_NAME = "optimistic-lock.conflicts";
+    public static final String CONFLICTS_METER_DESCRIPTION = "Indicates the count of updates which found their entity changed concurrently.";
+    public static final String CONFLICTS_METER_BASE_UNIT = "conflicts";
+
+    public static final String RETRIES_METER_NAME = "optimistic-lock.retries";
+    public static final String RETRIES_METER_DESCRIPTION = "Indicates the count of updates retried after an optimistic locking conflict.";
+    public static final String RETRIES_METER_BASE_UNIT = "retries";
+
+    public static final String OPERATION_DIMENSION = "operation";
+
+    private final MeterRegistry registry;
+
+    public OptimisticLockMetersService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void trackConflict(String operation) {
+        Counter
+            .builder(CONFLICTS_METER_NAME)
+            .baseUnit(CONFLICTS_METER_BASE_UNIT)
+            .description(CONFLICTS_METER_DESCRIPTION)
+            .tag(OPERATION_DIMENSION, operation)
+            .register(registry)
+            .increment();
+    }
+
+    public void trackRetry(String operation) {
+        Counter
+            .builder(RETRIES_METER_NAME)
+            .baseUnit(RETRIES_METER_BASE_UNIT)
+            .description(RETRIES_METER_DESCRIPTION)
+            .tag(OPERATION_DIMENSION, operation)
+            .register(registry)
+            .increment();
+    }
+}
@@ -0,0 +1,272 @@
+package com.yo.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for the append-only battery history and its rollups.
+ * <p>
+ * Rows are never read back as entities, so they are written with plain JDBC batches instead of going through the
+ * persistence context.
+ * <p>
+ * Times are stored as UTC wall times, as Hibernate stores them with {@code hibernate.jdbc.time_zone}, which plain JDBC
+ * does not apply: {@code date_trunc}, the buckets computed here and the daily partitions then all follow UTC hours and
+ * days, whatever the time zone of the JVM.
+ */
+@Repository
+public class BatteryHistoryRepository {
+
+    /**
+     * Resolution of a battery series, with the tables holding it.
+     */
+    public enum Resolution {
+        RAW(null, "battery_history", "battery_history", "recorded_at"),
+        MINUTE(Duration.ofMinutes(1), "battery_rollup_1m", "battery_fleet_rollup_1m", "bucket_start"),
+        HOUR(Duration.ofHours(1), "battery_rollup_1h", "battery_fleet_rollup_1h", "bucket_start");
+
+        private final Duration step;
+
+        private final String droneTable;
+
+        private final String fleetTable;
+
+        private final String timeColumn;
+
+        Resolution(Duration step, String droneTable, String fleetTable, String timeColumn) {
+            this.step = step;
+            this.droneTable = droneTable;
+            this.fleetTable = fleetTable;
+            this.timeColumn = timeColumn;
+        }
+
+        /**
+         * @return the width of a bucket, or {@code null} for raw readings.
+         */
+        public Duration getStep() {
+            return step;
+        }
+    }
+
+    private static final String INSERT_SQL = "insert into battery_history (drone_id, battery_capacity, recorded_at) values (?, ?, ?)";
+
+    private static final String ROLLUP_MINUTE_SQL =
+        "insert into battery_rollup_1m (drone_id, bucket_start, min_capacity, max_capacity, sum_capacity, sample_count) " +
+        "select drone_id, date_trunc('minute', recorded_at), min(battery_capacity), max(battery_capacity), " +
+        "sum(battery_capacity), count(battery_capacity) from battery_history " +
+        "where recorded_at >= ? and recorded_at < ? group by drone_id, date_trunc('minute', recorded_at)";
+
+    private static final String ROLLUP_HOUR_SQL =
+        "insert into battery_rollup_1h (drone_id, bucket_start, min_capacity, max_capacity, sum_capacity, sample_count) " +
+        "select drone_id, date_trunc('hour', bucket_start), min(min_capacity), max(max_capacity), " +
+        "sum(sum_capacity), sum(sample_count) from battery_rollup_1m " +
+        "where bucket_start >= ? and bucket_start < ? group by drone_id, date_trunc('hour', bucket_start)";
+
+    private static final String ROLLUP_FLEET_SQL =
+        "insert into %s (bucket_start, min_capacity, max_capacity, sum_capacity, sample_count) " +
+        "select bucket_start, min(min_capacity), max(max_capacity), sum(sum_capacity), sum(sample_count) from %s " +
+        "where bucket_start >= ? and bucket_start < ? group by bucket_start";
+
+    private static final String SERIES_RAW_SQL =
+        "select recorded_at, min(battery_capacity), max(battery_capacity), sum(battery_capacity), count(battery_capacity) " +
+        "from battery_history where recorded_at >= ? and recorded_at < ? %s group by recorded_at order by recorded_at";
+
+    private static final String SERIES_ROLLUP_SQL =
+        "select bucket_start, min_capacity, max_capacity, sum_capacity, sample_count " +
+        "from %s where bucket_start >= ? and bucket_start < ? %s order by bucket_start";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean partitioned;
+
+    public BatteryHistoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record the battery levels of several drones, in a single batch.
+     *
+     * @param levels the battery levels.
+     * @param recordedAt the time of the readings.
+     * @return the number of inserted rows.
+     */
+    @Transactional
+    public int insertAll(List<DroneBatteryLevel> levels, Instant recordedAt) {
+        if (levels.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime timestamp = utc(recordedAt);
+        List<Object[]> batchArgs = new ArrayList<>(levels.size());
+        for (DroneBatteryLevel level : levels) {
+            batchArgs.add(new Object[] { level.getId(), level.getBatteryCapacity(), timestamp });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+        return levels.size();
+    }
+
+    /**
+     * Get the start of the first bucket not rolled up yet at the given resolution.
+     *
+     * @param resolution the rollup resolution, {@link Resolution#MINUTE} or {@link Resolution#HOUR}.
+     * @return the start of the first pending bucket, or empty if there is nothing to roll up.
+     */
+    public Optional<Instant> findRollupStart(Resolution resolution) {
+        LocalDateTime last = jdbcTemplate.queryForObject("select max(bucket_start) from " + resolution.fleetTable, LocalDateTime.class);
+        if (last != null) {
+            return Optional.of(instantOf(last).plus(resolution.step));
+        }
+        Resolution source = resolution == Resolution.HOUR ? Resolution.MINUTE : Resolution.RAW;
+        LocalDateTime first = jdbcTemplate.queryForObject(
+            "select min(" + source.timeColumn + ") from " + source.droneTable,
+            LocalDateTime.class
+        );
+        return Optional.ofNullable(first).map(timestamp -> truncate(instantOf(timestamp), resolution.step));
+    }
+
+    /**
+     * Roll up the buckets starting in {@code [from, to)} at the given resolution, per drone and for the whole fleet.
+     *
+     * @param resolution the rollup resolution, {@link Resolution#MINUTE} or {@link Resolution#HOUR}.
+     * @param from the start of the first bucket, inclusive.
+     * @param to the start of the last bucket, exclusive.
+     * @return the number of rolled up per-drone buckets.
+     */
+    @Transactional
+    public int rollup(Resolution resolution, Instant from, Instant to) {
+        LocalDateTime fromTimestamp = utc(from);
+        LocalDateTime toTimestamp = utc(to);
+        int rows = jdbcTemplate.update(resolution == Resolution.HOUR ? ROLLUP_HOUR_SQL : ROLLUP_MINUTE_SQL, fromTimestamp, toTimestamp);
+        jdbcTemplate.update(String.format(ROLLUP_FLEET_SQL, resolution.fleetTable, resolution.droneTable), fromTimestamp, toTimestamp);
+        return rows;
+    }
+
+    /**
+     * Get the battery series of a drone, or of the whole fleet, at the given resolution.
+     *
+     * @param resolution the resolution of the series.
+     * @param droneId the id of the drone, or {@code null} for the whole fleet.
+     * @param from the start of the window, inclusive.
+     * @param to the end of the window, exclusive.
+     * @return the buckets of the window, in chronological order.
+     */
+    public List<BatteryRollup> findSeries(Resolution resolution, Long droneId, Instant from, Instant to) {
+        String droneFilter = droneId == null ? "" : "and drone_id = ?";
+        String sql = resolution == Resolution.RAW
+            ? String.format(SERIES_RAW_SQL, droneFilter)
+            : String.format(SERIES_ROLLUP_SQL, droneId == null ? resolution.fleetTable : resolution.droneTable, droneFilter);
+        Object[] args = droneId == null
+            ? new Object[] { utc(from), utc(to) }
+            : new Object[] { utc(from), utc(to), droneId };
+        return jdbcTemplate.query(sql, BatteryHistoryRepository::mapRollup, args);
+    }
+
+    /**
+     * @return whether the battery history is partitioned by day, which is only the case on PostgreSQL.
+     */
+    public boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())
+            );
+            partitioned = result;
+        }
+        return result;
+    }
+
+    /**
+     * Create the daily partition of the battery history for the given day, if it does not exist yet.
+     *
+     * @param day the day.
+     */
+    public void createPartition(LocalDate day) {
+        jdbcTemplate.execute(
+            "create table if not exists " +
+            partitionName(day) +
+            " partition of battery_history for values from ('" +
+            day +
+            "') to ('" +
+            day.plusDays(1) +
+            "')"
+        );
+    }
+
+    /**
+     * Drop the daily partitions of the battery history older than the given day.
+     *
+     * @param day the first day to keep.
+     * @return the names of the dropped partitions.
+     */
+    public List<String> dropPartitionsBefore(LocalDate day) {
+        String cutoff = partitionName(day);
+        List<String> dropped = new ArrayList<>();
+        for (String partition : jdbcTemplate.queryForList(
+            "select child.relname from pg_inherits " +
+            "join pg_class parent on parent.oid = pg_inherits.inhparent " +
+            "join pg_class child on child.oid = pg_inherits.inhrelid " +
+            "where parent.relname = 'battery_history' and child.relname like 'battery_history_p%'",
+            String.class
+        )) {
+            if (partition.compareTo(cutoff) < 0) {
+                jdbcTemplate.execute("drop table " + partition);
+                dropped.add(partition);
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Delete the raw readings and minute rollups older than the given time. On PostgreSQL, this only reaches the rows
+     * left in the default partition.
+     *
+     * @param before the cutoff time, exclusive.
+     * @return the number of deleted raw readings.
+     */
+    @Transactional
+    public int deleteBefore(Instant before) {
+        LocalDateTime cutoff = utc(before);
+        jdbcTemplate.update("delete from battery_rollup_1m where bucket_start < ?", cutoff);
+        jdbcTemplate.update("delete from battery_fleet_rollup_1m where bucket_start < ?", cutoff);
+        return jdbcTemplate.update("delete from battery_history where recorded_at < ?", cutoff);
+    }
+
+    private static String partitionName(LocalDate day) {
+        return "battery_history_p" + PARTITION_SUFFIX.format(day);
+    }
+
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant instantOf(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC);
+    }
+
+    private static Instant truncate(Instant instant, Duration step) {
+        long stepMillis = step.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(instant.toEpochMilli(), stepMillis) * stepMillis);
+    }
+
+    private static BatteryRollup mapRollup(ResultSet rs, int rowNum) throws SQLException {
+        return new BatteryRollup(
+            instantOf(rs.getObject(1, LocalDateTime.class)),
+            rs.getObject(2, Integer.class),
+            rs.getObject(3, Integer.class),
+            rs.getLong(4),
+            rs.getLong(5)
+        );
+    }
+}
@@ -0,0 +1,47 @@
+package com.yo.repository;
+
+import java.time.Instant;
+
+/**
+ * Aggregated battery readings of a time bucket, as read from the battery history or one of its rollups.
+ */
+public final class BatteryRollup {
+
+    private final Instant bucketStart;
+
+    private final Integer minCapacity;
+
+    private final Integer maxCapacity;
+
+    private final long sumCapacity;
+
+    private final long sampleCount;
+
+    public BatteryRollup(Instant bucketStart, Integer minCapacity, Integer maxCapacity, long sumCapacity, long sampleCount) {
+        this.bucketStart = bucketStart;
+        this.minCapacity = minCapacity;
+        this.maxCapacity = maxCapacity;
+        this.sumCapacity = sumCapacity;
+        this.sampleCount = sampleCount;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public Integer getMinCapacity() {
+        return minCapacity;
+    }
+
+    public Integer getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public long getSumCapacity() {
+        return sumCapacity;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+}
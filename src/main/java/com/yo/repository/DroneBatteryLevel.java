@@ -0,0 +1,10 @@
+package com.yo.repository;
+
+/**
+ * Projection of the battery level of a {@link com.yo.domain.Drone}.
+ */
+public interface DroneBatteryLevel {
+    Long getId();
+
+    Integer getBatteryCapacity();
+}
@@ -0,0 +1,16 @@
+package com.yo.repository;
+
+import com.yo.domain.Drone;
+import java.util.List;
+
+/**
+ * Bulk inserts of new {@link Drone}s.
+ */
+public interface DroneBulkRepository {
+    /**
+     * Insert new drones in a single JDBC batch, leaving them detached with their generated ids.
+     *
+     * @param drones the drones to insert.
+     */
+    void insertAll(List<Drone> drones);
+}
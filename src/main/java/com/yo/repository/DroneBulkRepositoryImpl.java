@@ -0,0 +1,39 @@
+package com.yo.repository;
+
+import com.yo.domain.Drone;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+/**
+ * Bulk inserts of new drones, sized to the whole list rather than to {@code hibernate.jdbc.batch_size}.
+ * <p>
+ * The second-level cache is bypassed for the rest of the transaction, so that an import does not push the cached drones
+ * out of the {@link Drone} region, and the persistence context is cleared after the flush, so that memory use does not
+ * grow with the number of imported drones.
+ */
+public class DroneBulkRepositoryImpl implements DroneBulkRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<Drone> drones) {
+        if (drones.isEmpty()) {
+            return;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        Integer jdbcBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(drones.size());
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            drones.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        } finally {
+            session.setJdbcBatchSize(jdbcBatchSize);
+        }
+    }
+}
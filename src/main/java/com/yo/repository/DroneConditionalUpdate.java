@@ -0,0 +1,65 @@
+package com.yo.repository;
+
+import com.yo.domain.Drone;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Conditional updates of a single drone, evicting only the updated drone from the second-level cache.
+ * <p>
+ * A bulk JPQL update would invalidate the whole {@link Drone} region on every update, so the update is issued as a
+ * native query synchronized on no entity, and the drone is evicted explicitly, once now and once more after the
+ * transaction completes, in case a concurrent read cached the previous value meanwhile.
+ */
+final class DroneConditionalUpdate {
+
+    private DroneConditionalUpdate() {}
+
+    /**
+     * Execute a native update of the "id" drone.
+     *
+     * @param entityManager the entity manager of the current transaction.
+     * @param sql the update, with an {@code :id} parameter.
+     * @param id the id of the drone.
+     * @param parameters the other parameters of the update.
+     * @return the number of updated rows.
+     */
+    static int execute(EntityManager entityManager, String sql, Long id, Map<String, Object> parameters) {
+        entityManager.flush();
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).setParameter("id", id).unwrap(NativeQuery.class);
+        parameters.forEach(query::setParameter);
+        int rows = query.addSynchronizedQuerySpace("").executeUpdate();
+        evict(entityManager, id);
+        // the managed drone, if any, still holds the previous values: read it again, leaving the other entities alone
+        Drone managed = findManaged(entityManager, id);
+        if (managed != null) {
+            entityManager.refresh(managed);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        evict(entityManager, id);
+                    }
+                }
+            );
+        }
+        return rows;
+    }
+
+    private static Drone findManaged(EntityManager entityManager, Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Drone.class);
+        return (Drone) session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+    }
+
+    private static void evict(EntityManager entityManager, Long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Drone.class, id);
+    }
+}
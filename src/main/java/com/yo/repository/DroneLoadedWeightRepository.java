@@ -0,0 +1,20 @@
+package com.yo.repository;
+
+/**
+ * Conditional updates of the loaded weight of a {@link com.yo.domain.Drone}.
+ */
+public interface DroneLoadedWeightRepository {
+    /**
+     * Add weight to the loaded weight of a drone, only if it still fits within its weight limit.
+     *
+     * @return the number of updated rows, {@code 0} if the drone does not exist or the weight does not fit.
+     */
+    int addLoadedWeight(Long id, long weight);
+
+    /**
+     * Remove weight from the loaded weight of a drone.
+     *
+     * @return the number of updated rows.
+     */
+    int removeLoadedWeight(Long id, long weight);
+}
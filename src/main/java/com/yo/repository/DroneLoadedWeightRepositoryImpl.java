@@ -0,0 +1,30 @@
+package com.yo.repository;
+
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Conditional updates of the loaded weight, evicting only the updated drone from the second-level cache.
+ */
+public class DroneLoadedWeightRepositoryImpl implements DroneLoadedWeightRepository {
+
+    private static final String ADD_LOADED_WEIGHT_SQL =
+        "update drone set loaded_weight = loaded_weight + :weight " +
+        "where id = :id and loaded_weight + :weight <= coalesce(weight_limit, 500)";
+
+    private static final String REMOVE_LOADED_WEIGHT_SQL = "update drone set loaded_weight = loaded_weight - :weight where id = :id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int addLoadedWeight(Long id, long weight) {
+        return DroneConditionalUpdate.execute(entityManager, ADD_LOADED_WEIGHT_SQL, id, Map.of("weight", weight));
+    }
+
+    @Override
+    public int removeLoadedWeight(Long id, long weight) {
+        return DroneConditionalUpdate.execute(entityManager, REMOVE_LOADED_WEIGHT_SQL, id, Map.of("weight", weight));
+    }
+}
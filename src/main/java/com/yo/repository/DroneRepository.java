@@ -1,7 +1,17 @@
 package com.yo.repository;
 
 import com.yo.domain.Drone;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +19,69 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface DroneRepository extends JpaRepository<Drone, Long> {}
+public interface DroneRepository
+    extends
+        DroneRepositoryWithBagRelationships,
+        DroneLoadedWeightRepository,
+        DroneStateRepository,
+        DroneBulkRepository,
+        JpaRepository<Drone, Long> {
+    default Optional<Drone> findOneWithEagerRelationships(Long id) {
+        return this.fetchBagRelationships(this.findById(id));
+    }
+
+    default List<Drone> findAllWithEagerRelationships() {
+        return this.fetchBagRelationships(this.findAll());
+    }
+
+    default Page<Drone> findAllWithEagerRelationships(Pageable pageable) {
+        return this.fetchBagRelationships(this.findAll(pageable));
+    }
+
+    default Slice<Drone> findAllWithEagerRelationshipsByIdGreaterThan(Long id, Pageable pageable) {
+        Slice<Drone> slice = this.findAllByIdGreaterThanOrderByIdAsc(id, pageable);
+        return new SliceImpl<>(this.fetchBagRelationships(slice.getContent()), slice.getPageable(), slice.hasNext());
+    }
+
+    Slice<Drone> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query(
+        value = "select drone.id as id, drone.serialNumber as serialNumber, drone.model as model, drone.weightLimit as weightLimit, " +
+        "drone.batteryCapacity as batteryCapacity, drone.state as state, drone.loadedWeight as loadedWeight from Drone drone",
+        countQuery = "select count(drone) from Drone drone"
+    )
+    Page<DroneSummary> findAllSummariesBy(Pageable pageable);
+
+    @Query(
+        "select drone.id as id, drone.serialNumber as serialNumber, drone.model as model, drone.weightLimit as weightLimit, " +
+        "drone.batteryCapacity as batteryCapacity, drone.state as state, drone.loadedWeight as loadedWeight " +
+        "from Drone drone order by drone.id"
+    )
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<DroneSummary> streamAllSummariesBy();
+
+    @Query(
+        "select drone.id as id, drone.serialNumber as serialNumber, drone.model as model, drone.weightLimit as weightLimit, " +
+        "drone.batteryCapacity as batteryCapacity, drone.state as state, drone.loadedWeight as loadedWeight " +
+        "from Drone drone where drone.id = :id"
+    )
+    Optional<DroneSummary> findSummaryById(@Param("id") Long id);
+
+    @Query("select drone.id as id, drone.batteryCapacity as batteryCapacity from Drone drone where drone.id in :ids")
+    List<DroneBatteryLevel> findBatteryLevelsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select drone.id as id, drone.batteryCapacity as batteryCapacity from Drone drone order by drone.id")
+    List<DroneBatteryLevel> findAllBatteryLevels();
+
+    @Query(
+        "select drone.id as id, drone.batteryCapacity as batteryCapacity from Drone drone " +
+        "where drone.id between :fromId and :toId order by drone.id"
+    )
+    List<DroneBatteryLevel> findBatteryLevelsByIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("select min(drone.id) from Drone drone")
+    Long findMinId();
+
+    @Query("select max(drone.id) from Drone drone")
+    Long findMaxId();
+}
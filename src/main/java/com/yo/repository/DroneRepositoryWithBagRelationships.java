@@ -0,0 +1,17 @@
+package com.yo.repository;
+
+import com.yo.domain.Drone;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Page;
+
+public interface DroneRepositoryWithBagRelationships {
+    Optional<Drone> fetchBagRelationships(Optional<Drone> drone);
+
+    List<Drone> fetchBagRelationships(List<Drone> drones);
+
+    Page<Drone> fetchBagRelationships(Page<Drone> drones);
+
+    void forEachWithEagerRelationships(int chunkSize, Consumer<Drone> consumer);
+}
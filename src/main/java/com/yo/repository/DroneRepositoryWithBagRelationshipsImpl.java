@@ -0,0 +1,109 @@
+package com.yo.repository;
+
+import com.yo.domain.Drone;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * Utility repository to load bag relationships based on https://vladmihalcea.com/hibernate-multiplebagfetchexception/
+ * <p>
+ * A page of drones is loaded first, then their medications with a single fetch join, so that the number of queries
+ * does not depend on the size of the page.
+ * <p>
+ * The whole fleet is read the same way, one chunk at a time from a forward-only cursor, clearing the persistence context
+ * after each chunk so that memory use does not depend on the size of the fleet.
+ */
+public class DroneRepositoryWithBagRelationshipsImpl implements DroneRepositoryWithBagRelationships {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Drone> fetchBagRelationships(Optional<Drone> drone) {
+        return drone.map(this::fetchMedications);
+    }
+
+    @Override
+    public Page<Drone> fetchBagRelationships(Page<Drone> drones) {
+        return new PageImpl<>(fetchBagRelationships(drones.getContent()), drones.getPageable(), drones.getTotalElements());
+    }
+
+    @Override
+    public List<Drone> fetchBagRelationships(List<Drone> drones) {
+        return Optional.of(drones).filter(list -> !list.isEmpty()).map(this::fetchMedications).orElse(Collections.emptyList());
+    }
+
+    @Override
+    public void forEachWithEagerRelationships(int chunkSize, Consumer<Drone> consumer) {
+        try (
+            Stream<Drone> drones = entityManager
+                .createQuery("select drone from Drone drone order by drone.id", Drone.class)
+                .setHint(QueryHints.FETCH_SIZE, chunkSize)
+                .setHint(QueryHints.READ_ONLY, true)
+                .setHint(QueryHints.CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()
+        ) {
+            List<Drone> chunk = new ArrayList<>(chunkSize);
+            drones.forEach(drone -> {
+                chunk.add(drone);
+                if (chunk.size() == chunkSize) {
+                    flushChunk(chunk, consumer);
+                }
+            });
+            flushChunk(chunk, consumer);
+        }
+    }
+
+    private void flushChunk(List<Drone> chunk, Consumer<Drone> consumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // the chunk is read once and dropped: neither keep snapshots of it nor put it in the second-level cache
+        List<Drone> drones = fetchMedicationsQuery(chunk)
+            .setHint(QueryHints.READ_ONLY, true)
+            .setHint(QueryHints.CACHE_MODE, CacheMode.IGNORE)
+            .getResultList();
+        inOrder(chunk, drones).forEach(consumer);
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    Drone fetchMedications(Drone result) {
+        return entityManager
+            .createQuery("select drone from Drone drone left join fetch drone.medications where drone is :drone", Drone.class)
+            .setParameter("drone", result)
+            .setHint(QueryHints.PASS_DISTINCT_THROUGH, false)
+            .getSingleResult();
+    }
+
+    List<Drone> fetchMedications(List<Drone> drones) {
+        return inOrder(drones, fetchMedicationsQuery(drones).getResultList());
+    }
+
+    private TypedQuery<Drone> fetchMedicationsQuery(List<Drone> drones) {
+        return entityManager
+            .createQuery("select distinct drone from Drone drone left join fetch drone.medications where drone in :drones", Drone.class)
+            .setParameter("drones", drones)
+            .setHint(QueryHints.PASS_DISTINCT_THROUGH, false);
+    }
+
+    private static List<Drone> inOrder(List<Drone> drones, List<Drone> result) {
+        HashMap<Object, Integer> order = new HashMap<>();
+        IntStream.range(0, drones.size()).forEach(index -> order.put(drones.get(index).getId(), index));
+        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
+        return result;
+    }
+}
@@ -0,0 +1,18 @@
+package com.yo.repository;
+
+import com.yo.domain.enumeration.State;
+
+/**
+ * Conditional updates of the state of a {@link com.yo.domain.Drone}.
+ */
+public interface DroneStateRepository {
+    /**
+     * Move a drone to the target state, only if it is still in the expected state and has at least the given battery
+     * level. The version of the drone is incremented, so that concurrent edits of the drone still holding the previous
+     * state are detected.
+     *
+     * @return the number of updated rows, {@code 0} if the drone does not exist, left the expected state or does not
+     * have enough battery.
+     */
+    int compareAndSetState(Long id, State expected, State target, int minBatteryCapacity);
+}
@@ -0,0 +1,29 @@
+package com.yo.repository;
+
+import com.yo.domain.enumeration.State;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Compare-and-set updates of the state, evicting only the updated drone from the second-level cache.
+ */
+public class DroneStateRepositoryImpl implements DroneStateRepository {
+
+    private static final String COMPARE_AND_SET_STATE_SQL =
+        "update drone set state = :target, version = version + 1 " +
+        "where id = :id and state = :expected and coalesce(battery_capacity, 0) >= :minBatteryCapacity";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int compareAndSetState(Long id, State expected, State target, int minBatteryCapacity) {
+        return DroneConditionalUpdate.execute(
+            entityManager,
+            COMPARE_AND_SET_STATE_SQL,
+            id,
+            Map.of("expected", expected.name(), "target", target.name(), "minBatteryCapacity", minBatteryCapacity)
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.yo.repository;
+
+import com.yo.domain.enumeration.Model;
+import com.yo.domain.enumeration.State;
+
+/**
+ * Read-only projection of a {@link com.yo.domain.Drone}, without its medications.
+ * <p>
+ * Rows are read as tuples, so they never enter the persistence context.
+ */
+public interface DroneSummary {
+    Long getId();
+
+    String getSerialNumber();
+
+    Model getModel();
+
+    Long getWeightLimit();
+
+    Integer getBatteryCapacity();
+
+    State getState();
+
+    Long getLoadedWeight();
+}
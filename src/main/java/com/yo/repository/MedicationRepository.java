@@ -1,6 +1,8 @@
 package com.yo.repository;
 
 import com.yo.domain.Medication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +11,6 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface MedicationRepository extends JpaRepository<Medication, Long> {}
+public interface MedicationRepository extends JpaRepository<Medication, Long> {
+    Slice<Medication> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
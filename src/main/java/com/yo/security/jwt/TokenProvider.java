@@ -1,5 +1,10 @@
 package com.yo.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.yo.config.ApplicationProperties;
 import com.yo.management.SecurityMetersService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -7,10 +12,14 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -29,6 +38,8 @@ public class TokenProvider {
 
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
+    private static final MessageDigest SHA_256 = sha256();
+
     private final Key key;
 
     private final JwtParser jwtParser;
@@ -39,7 +50,24 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    /**
+     * Principals and authorities of the tokens already validated, keyed by the SHA-256 hash of the token, until the token
+     * expires.
+     * Invalid tokens are never kept, so that they are parsed and counted each time they are presented. {@code null} when
+     * the cache is disabled.
+     */
+    private final Cache<String, ValidatedToken> validatedTokens;
+
+    @Autowired
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        SecurityMetersService securityMetersService,
+        ApplicationProperties applicationProperties
+    ) {
+        this(jHipsterProperties, securityMetersService, applicationProperties.getTokenCache().getMaxEntries(), Ticker.systemTicker());
+    }
+
+    TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService, long maxEntries, Ticker ticker) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -60,6 +88,8 @@ public class TokenProvider {
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.validatedTokens =
+            maxEntries > 0 ? Caffeine.newBuilder().maximumSize(maxEntries).expireAfter(new TokenExpiry()).ticker(ticker).build() : null;
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -82,25 +112,47 @@ public class TokenProvider {
             .compact();
     }
 
+    /**
+     * Get the authentication of a token, verifying the token unless it was already validated.
+     *
+     * @param token the JWT token.
+     * @return the authentication of the token.
+     * @throws JwtException if the token is not valid.
+     */
     public Authentication getAuthentication(String token) {
+        ValidatedToken validatedToken = validatedTokens == null
+            ? validate(token)
+            // concurrent requests presenting the same new token verify it once
+            : validatedTokens.get(hash(token), tokenHash -> validate(token));
+        // the authentication is mutable and goes into the security context of the request: each request gets its own
+        return new UsernamePasswordAuthenticationToken(validatedToken.principal, token, validatedToken.authorities);
+    }
+
+    private ValidatedToken validate(String token) {
         Claims claims = jwtParser.parseClaimsJws(token).getBody();
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
+        List<GrantedAuthority> authorities = Arrays
             .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
             .filter(auth -> !auth.trim().isEmpty())
             .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+            .collect(Collectors.toUnmodifiableList());
 
         User principal = new User(claims.getSubject(), "", authorities);
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        // a token without expiration stays valid, until evicted
+        long expiration = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        return new ValidatedToken(principal, authorities, expiration);
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Get the authentication of a token if it is valid, counting the invalid tokens.
+     *
+     * @param authToken the JWT token.
+     * @return the authentication of the token, or empty if it is not valid.
+     */
+    public Optional<Authentication> resolveAuthentication(String authToken) {
         try {
-            jwtParser.parseClaimsJws(authToken);
-
-            return true;
+            return Optional.of(getAuthentication(authToken));
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +173,66 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return Optional.empty();
+    }
+
+    public boolean validateToken(String authToken) {
+        return resolveAuthentication(authToken).isPresent();
+    }
+
+    private static String hash(String token) {
+        try {
+            // cloning is cheaper than looking the algorithm up in the security providers
+            MessageDigest digest = (MessageDigest) SHA_256.clone();
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ValidatedToken {
+
+        private final User principal;
+
+        private final List<GrantedAuthority> authorities;
+
+        private final long expiration;
+
+        private ValidatedToken(User principal, List<GrantedAuthority> authorities, long expiration) {
+            this.principal = principal;
+            this.authorities = authorities;
+            this.expiration = expiration;
+        }
+    }
+
+    /**
+     * Expires a validated token when the token itself expires.
+     */
+    private static final class TokenExpiry implements Expiry<String, ValidatedToken> {
+
+        @Override
+        public long expireAfterCreate(String tokenHash, ValidatedToken validatedToken, long currentTime) {
+            // converted with saturation, for the tokens without expiration
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, validatedToken.expiration - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenHash, ValidatedToken validatedToken, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenHash, validatedToken, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenHash, ValidatedToken validatedToken, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,155 @@
+package com.yo.service;
+
+import com.yo.config.ApplicationProperties;
+import com.yo.repository.BatteryHistoryRepository;
+import com.yo.repository.DroneBatteryLevel;
+import com.yo.repository.DroneRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service recording the battery level of every drone into the battery history.
+ * <p>
+ * A sweep splits the drone id range into partitions of {@code application.battery.audit.partition-size} ids, and
+ * {@code application.battery.audit.parallelism} workers claim partitions until none is left. The workers run on a pool
+ * of their own, sized to the parallelism, so that a sweep neither waits for nor delays the other asynchronous tasks.
+ * Each partition is read with a single projection query and written with a single JDBC batch, all readings of a
+ * sweep sharing the same timestamp.
+ */
+@Service
+public class BatteryAuditService {
+
+    private final Logger log = LoggerFactory.getLogger(BatteryAuditService.class);
+
+    private final DroneRepository droneRepository;
+
+    private final BatteryHistoryRepository batteryHistoryRepository;
+
+    private final Executor auditExecutor;
+
+    private final ApplicationProperties.Battery.Audit properties;
+
+    private final Clock clock;
+
+    @Autowired
+    public BatteryAuditService(
+        DroneRepository droneRepository,
+        BatteryHistoryRepository batteryHistoryRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this(
+            droneRepository,
+            batteryHistoryRepository,
+            newAuditExecutor(applicationProperties.getBattery().getAudit().getParallelism()),
+            applicationProperties.getBattery().getAudit(),
+            Clock.systemUTC()
+        );
+    }
+
+    BatteryAuditService(
+        DroneRepository droneRepository,
+        BatteryHistoryRepository batteryHistoryRepository,
+        Executor auditExecutor,
+        ApplicationProperties.Battery.Audit properties,
+        Clock clock
+    ) {
+        this.droneRepository = droneRepository;
+        this.batteryHistoryRepository = batteryHistoryRepository;
+        this.auditExecutor = auditExecutor;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Sweep the fleet on a fixed delay, when the audit is enabled.
+     */
+    @Scheduled(fixedDelayString = "${application.battery.audit.interval:PT1M}")
+    public void scheduledSweep() {
+        if (properties.isEnabled()) {
+            sweep();
+        }
+    }
+
+    /**
+     * Record the battery level of every drone.
+     *
+     * @return the number of recorded readings.
+     */
+    public int sweep() {
+        Long minId = droneRepository.findMinId();
+        Long maxId = droneRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+        Instant recordedAt = clock.instant();
+        long partitionSize = Math.max(1, properties.getPartitionSize());
+        long partitions = (maxId - minId) / partitionSize + 1;
+        int workers = (int) Math.min(Math.max(1, properties.getParallelism()), partitions);
+
+        AtomicLong nextPartition = new AtomicLong();
+        AtomicInteger recorded = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(
+                CompletableFuture.runAsync(
+                    () -> {
+                        long partition;
+                        while ((partition = nextPartition.getAndIncrement()) < partitions) {
+                            long fromId = minId + partition * partitionSize;
+                            long toId = Math.min(maxId, fromId + partitionSize - 1);
+                            recorded.addAndGet(auditPartition(fromId, toId, recordedAt));
+                        }
+                    },
+                    auditExecutor
+                )
+            );
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        log.info(
+            "Battery audit recorded {} readings over {} partitions in {} ms",
+            recorded.get(),
+            partitions,
+            Duration.between(recordedAt, clock.instant()).toMillis()
+        );
+        return recorded.get();
+    }
+
+    /**
+     * Stop the audit workers when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (auditExecutor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) auditExecutor).shutdown();
+        }
+    }
+
+    private static ThreadPoolTaskExecutor newAuditExecutor(int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, parallelism));
+        executor.setMaxPoolSize(Math.max(1, parallelism));
+        executor.setThreadNamePrefix("battery-audit-");
+        executor.initialize();
+        return executor;
+    }
+
+    private int auditPartition(long fromId, long toId, Instant recordedAt) {
+        List<DroneBatteryLevel> levels = droneRepository.findBatteryLevelsByIdBetween(fromId, toId);
+        log.debug("Auditing {} drones between ids {} and {}", levels.size(), fromId, toId);
+        return batteryHistoryRepository.insertAll(levels, recordedAt);
+    }
+}
@@ -0,0 +1,166 @@
+package com.yo.service;
+
+import com.yo.config.ApplicationProperties;
+import com.yo.repository.BatteryHistoryRepository;
+import com.yo.repository.BatteryHistoryRepository.Resolution;
+import com.yo.repository.BatteryRollup;
+import com.yo.service.dto.BatteryHistoryDTO;
+import com.yo.service.dto.BatteryHistoryPointDTO;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service maintaining the battery history: daily partitions, rollups and series queries.
+ * <p>
+ * Readings are rolled up to 1 minute buckets once {@code application.battery.history.rollup-lag} has passed, and
+ * complete hours of minute buckets are rolled up to 1 hour buckets. Both rollups also keep a fleet-wide bucket, so that
+ * fleet dashboards read one row per bucket whatever the size of the fleet. The jobs only run while the battery audit
+ * is enabled.
+ */
+@Service
+public class BatteryHistoryService {
+
+    private final Logger log = LoggerFactory.getLogger(BatteryHistoryService.class);
+
+    private final BatteryHistoryRepository batteryHistoryRepository;
+
+    private final ApplicationProperties.Battery properties;
+
+    private final Clock clock;
+
+    @Autowired
+    public BatteryHistoryService(BatteryHistoryRepository batteryHistoryRepository, ApplicationProperties applicationProperties) {
+        this(batteryHistoryRepository, applicationProperties.getBattery(), Clock.systemUTC());
+    }
+
+    BatteryHistoryService(BatteryHistoryRepository batteryHistoryRepository, ApplicationProperties.Battery properties, Clock clock) {
+        this.batteryHistoryRepository = batteryHistoryRepository;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Get the battery series of a drone, or of the whole fleet, at the finest resolution returning at most
+     * {@code maxPoints} buckets over the window.
+     * <p>
+     * Rollups lag behind the raw readings, so the most recent buckets of a rolled up series may be missing.
+     *
+     * @param droneId the id of the drone, or {@code null} for the whole fleet.
+     * @param from the start of the window, inclusive.
+     * @param to the end of the window, exclusive.
+     * @param maxPoints the maximum number of buckets, capped at the configured maximum, or {@code null} for the
+     * configured maximum.
+     * @return the series.
+     */
+    public BatteryHistoryDTO findHistory(Long droneId, Instant from, Instant to, Integer maxPoints) {
+        int limit = properties.getHistory().getMaxPoints();
+        // a larger request would read raw readings over a long window
+        Resolution resolution = resolutionFor(Duration.between(from, to), maxPoints == null ? limit : Math.min(maxPoints, limit));
+        log.debug("Request to get battery history of Drone {} between {} and {} by {}", droneId, from, to, resolution);
+        List<BatteryHistoryPointDTO> points = batteryHistoryRepository
+            .findSeries(resolution, droneId, from, to)
+            .stream()
+            .map(BatteryHistoryService::toPoint)
+            .collect(Collectors.toList());
+        return new BatteryHistoryDTO(droneId, resolution, from, to, points);
+    }
+
+    Resolution resolutionFor(Duration window, int maxPoints) {
+        for (Resolution resolution : Resolution.values()) {
+            Duration step = resolution == Resolution.RAW ? properties.getAudit().getInterval() : resolution.getStep();
+            if (window.dividedBy(step) <= maxPoints) {
+                return resolution;
+            }
+        }
+        return Resolution.HOUR;
+    }
+
+    /**
+     * Roll up the pending minute buckets, then the pending hours.
+     */
+    @Scheduled(fixedDelayString = "${application.battery.history.rollup-interval:PT1M}")
+    public void scheduledRollup() {
+        if (properties.getAudit().isEnabled()) {
+            rollup();
+        }
+    }
+
+    /**
+     * Roll up the pending minute buckets, then the pending hours.
+     */
+    public void rollup() {
+        Instant minuteEnd = clock.instant().minus(properties.getHistory().getRollupLag());
+        Instant rolledUpTo = rollup(Resolution.MINUTE, minuteEnd);
+        if (rolledUpTo != null) {
+            rollup(Resolution.HOUR, rolledUpTo);
+        }
+    }
+
+    private Instant rollup(Resolution resolution, Instant end) {
+        Optional<Instant> start = batteryHistoryRepository.findRollupStart(resolution);
+        if (start.isEmpty()) {
+            return null;
+        }
+        Instant from = start.get();
+        Instant to = from.plus(resolution.getStep().multipliedBy(Duration.between(from, end).dividedBy(resolution.getStep())));
+        if (to.isAfter(from)) {
+            int rows = batteryHistoryRepository.rollup(resolution, from, to);
+            log.debug("Rolled up {} battery buckets by {} between {} and {}", rows, resolution, from, to);
+        }
+        return to;
+    }
+
+    /**
+     * Create the daily partitions ahead and drop the expired history.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 5 0 * * ?")
+    public void scheduledMaintenance() {
+        if (properties.getAudit().isEnabled()) {
+            maintainPartitions();
+        }
+    }
+
+    /**
+     * Create the daily partitions ahead and drop the expired history.
+     */
+    public void maintainPartitions() {
+        Instant cutoff = clock.instant().minus(properties.getHistory().getRetention());
+        if (batteryHistoryRepository.isPartitioned()) {
+            // today's partition was created the day before, or its readings already went to the default partition
+            LocalDate today = LocalDate.now(clock);
+            for (int day = 1; day <= properties.getHistory().getPartitionsAhead(); day++) {
+                batteryHistoryRepository.createPartition(today.plusDays(day));
+            }
+            List<String> dropped = batteryHistoryRepository.dropPartitionsBefore(LocalDate.ofInstant(cutoff, clock.getZone()));
+            if (!dropped.isEmpty()) {
+                log.info("Dropped expired battery history partitions {}", dropped);
+            }
+        }
+        int deleted = batteryHistoryRepository.deleteBefore(cutoff);
+        log.debug("Deleted {} expired battery readings", deleted);
+    }
+
+    private static BatteryHistoryPointDTO toPoint(BatteryRollup rollup) {
+        Double average = rollup.getSampleCount() == 0 ? null : (double) rollup.getSumCapacity() / rollup.getSampleCount();
+        return new BatteryHistoryPointDTO(
+            rollup.getBucketStart(),
+            rollup.getMinCapacity(),
+            rollup.getMaxCapacity(),
+            average,
+            rollup.getSampleCount()
+        );
+    }
+}
@@ -0,0 +1,220 @@
+package com.yo.service;
+
+import com.yo.config.ApplicationProperties;
+import com.yo.repository.DroneBatteryLevel;
+import com.yo.repository.DroneRepository;
+import com.yo.service.dto.BatteryLevelDTO;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-drone snapshots of the battery level, served to pollers without reaching the database.
+ * <p>
+ * A snapshot is read again once it is older than {@code application.battery.max-staleness}, and stale snapshots
+ * requested together are refreshed with a single projection query. A snapshot is refreshed by one caller at a time: the
+ * others wait for its result rather than querying it again. Writes going through the application evict the snapshot of
+ * the drone they change, which is read again on its own while the rest of the fleet stays cached.
+ * <p>
+ * This is a plain {@link Component} rather than a {@code @Service} so that polling stays out of the logging aspect.
+ */
+@Component
+public class BatteryLevelCache {
+
+    /**
+     * Number of drones read by one query when refreshing battery levels, far below the bind parameter limits of the
+     * databases.
+     */
+    static final int REFRESH_CHUNK_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(BatteryLevelCache.class);
+
+    private final ConcurrentMap<Long, BatteryLevelDTO> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Refreshes in progress, completed with the new snapshot, or {@code null} if the drone no longer exists.
+     */
+    private final ConcurrentMap<Long, CompletableFuture<BatteryLevelDTO>> refreshes = new ConcurrentHashMap<>();
+
+    /**
+     * Ids of the fleet as of its last refresh, plus the drones written since.
+     */
+    private final Set<Long> fleetIds = ConcurrentHashMap.newKeySet();
+
+    private final DroneRepository droneRepository;
+
+    private final Duration maxStaleness;
+
+    private final Clock clock;
+
+    private volatile Instant fleetRefreshedAt = Instant.MIN;
+
+    @Autowired
+    public BatteryLevelCache(DroneRepository droneRepository, ApplicationProperties applicationProperties) {
+        this(droneRepository, applicationProperties.getBattery().getMaxStaleness(), Clock.systemUTC());
+    }
+
+    BatteryLevelCache(DroneRepository droneRepository, Duration maxStaleness, Clock clock) {
+        this.droneRepository = droneRepository;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+    }
+
+    /**
+     * Get the battery level of the "id" drone.
+     *
+     * @param droneId the id of the drone.
+     * @return the battery level, or empty if the drone does not exist.
+     */
+    public Optional<BatteryLevelDTO> get(Long droneId) {
+        List<BatteryLevelDTO> result = getAll(List.of(droneId));
+        return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
+    }
+
+    /**
+     * Get the battery levels of the given drones, skipping the drones that do not exist.
+     *
+     * @param droneIds the ids of the drones.
+     * @return the battery levels, in the order of the ids.
+     */
+    public List<BatteryLevelDTO> getAll(Collection<Long> droneIds) {
+        Set<Long> ids = new LinkedHashSet<>(droneIds);
+        Instant now = clock.instant();
+        Map<Long, CompletableFuture<BatteryLevelDTO>> refreshed = new HashMap<>();
+        Map<Long, CompletableFuture<BatteryLevelDTO>> owned = new LinkedHashMap<>();
+        for (Long id : ids) {
+            if (!isFresh(snapshots.get(id), now)) {
+                CompletableFuture<BatteryLevelDTO> refresh = new CompletableFuture<>();
+                CompletableFuture<BatteryLevelDTO> inProgress = refreshes.putIfAbsent(id, refresh);
+                if (inProgress == null) {
+                    owned.put(id, refresh);
+                }
+                refreshed.put(id, inProgress == null ? refresh : inProgress);
+            }
+        }
+        if (!owned.isEmpty()) {
+            refresh(owned, now);
+        }
+        List<BatteryLevelDTO> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            CompletableFuture<BatteryLevelDTO> refresh = refreshed.get(id);
+            BatteryLevelDTO snapshot = refresh == null ? snapshots.get(id) : join(refresh);
+            if (snapshot != null) {
+                result.add(snapshot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the battery levels of the whole fleet.
+     *
+     * @return the battery levels, ordered by drone id.
+     */
+    public List<BatteryLevelDTO> getAll() {
+        Instant now = clock.instant();
+        if (fleetRefreshedAt.plus(maxStaleness).isBefore(now)) {
+            refreshFleet(now);
+        }
+        // only the snapshots evicted since the fleet was read go to the database
+        List<BatteryLevelDTO> result = getAll(new ArrayList<>(fleetIds));
+        result.sort(Comparator.comparing(BatteryLevelDTO::getId));
+        return result;
+    }
+
+    /**
+     * Drop the snapshot of the "id" drone, so that the next read of it goes to the database.
+     *
+     * @param droneId the id of the drone.
+     */
+    public void evict(Long droneId) {
+        if (droneId != null) {
+            snapshots.remove(droneId);
+            fleetIds.add(droneId);
+        }
+    }
+
+    private void refresh(Map<Long, CompletableFuture<BatteryLevelDTO>> owned, Instant now) {
+        log.debug("Refreshing battery levels of {} drones", owned.size());
+        try {
+            Map<Long, BatteryLevelDTO> levels = new HashMap<>();
+            List<Long> ids = new ArrayList<>(owned.keySet());
+            for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+                droneRepository
+                    .findBatteryLevelsByIdIn(ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size())))
+                    .forEach(level -> levels.put(level.getId(), snapshotOf(level, now)));
+            }
+            owned.forEach((id, refresh) -> {
+                BatteryLevelDTO snapshot = levels.get(id);
+                if (snapshot != null) {
+                    snapshots.put(id, snapshot);
+                } else {
+                    // drones that vanished must not be served from an old snapshot
+                    snapshots.remove(id);
+                    fleetIds.remove(id);
+                }
+                refresh.complete(snapshot);
+            });
+        } catch (RuntimeException e) {
+            owned.values().forEach(refresh -> refresh.completeExceptionally(e));
+            throw e;
+        } finally {
+            owned.forEach(refreshes::remove);
+        }
+    }
+
+    private synchronized void refreshFleet(Instant now) {
+        if (!fleetRefreshedAt.plus(maxStaleness).isBefore(now)) {
+            return;
+        }
+        log.debug("Refreshing battery levels of the fleet");
+        Set<Long> present = new HashSet<>();
+        for (DroneBatteryLevel level : droneRepository.findAllBatteryLevels()) {
+            snapshots.put(level.getId(), snapshotOf(level, now));
+            present.add(level.getId());
+        }
+        snapshots.keySet().retainAll(present);
+        fleetIds.retainAll(present);
+        fleetIds.addAll(present);
+        fleetRefreshedAt = now;
+    }
+
+    private static BatteryLevelDTO join(CompletableFuture<BatteryLevelDTO> refresh) {
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            // the refresh of another caller failed, report it as if this caller ran it
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static BatteryLevelDTO snapshotOf(DroneBatteryLevel level, Instant now) {
+        return new BatteryLevelDTO(level.getId(), level.getBatteryCapacity(), now);
+    }
+
+    private boolean isFresh(BatteryLevelDTO snapshot, Instant now) {
+        return snapshot != null && !snapshot.getRefreshedAt().plus(maxStaleness).isBefore(now);
+    }
+}
@@ -0,0 +1,261 @@
+package com.yo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.yo.config.ApplicationProperties;
+import com.yo.domain.Drone;
+import com.yo.security.SecurityUtils;
+import com.yo.service.dto.DispatchCommandDTO;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Service running dispatch commands asynchronously, once per idempotency key.
+ * <p>
+ * A command is identified by its submitter and the idempotency key they chose, so that a client retrying after a
+ * timeout gets the command it already submitted instead of running it twice. Commands run on the {@code taskExecutor},
+ * and are kept until they complete, up to {@code application.dispatch-commands.max-in-progress} of them at once;
+ * completed commands are then kept for {@code application.dispatch-commands.time-to-live}, up to
+ * {@code application.dispatch-commands.max-entries} of them.
+ * <p>
+ * Commands are kept in memory: an idempotency key only protects against retries reaching the same instance.
+ */
+@Service
+public class DispatchCommandService {
+
+    static final String CONCURRENCY_FAILURE_ERROR_KEY = "concurrencyfailure";
+
+    static final String INTERNAL_ERROR_KEY = "internalerror";
+
+    private final Logger log = LoggerFactory.getLogger(DispatchCommandService.class);
+
+    private final Cache<UUID, Entry> commands;
+
+    /**
+     * Number of commands pending or running, which are never evicted from the cache.
+     */
+    private final AtomicInteger inProgress = new AtomicInteger();
+
+    private final int maxInProgress;
+
+    private final Executor taskExecutor;
+
+    private final ObjectMapper objectMapper;
+
+    private final Clock clock;
+
+    @Autowired
+    public DispatchCommandService(
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this(
+            taskExecutor,
+            objectMapper,
+            applicationProperties.getDispatchCommands().getMaxEntries(),
+            applicationProperties.getDispatchCommands().getMaxInProgress(),
+            applicationProperties.getDispatchCommands().getTimeToLive(),
+            Ticker.systemTicker(),
+            Clock.systemUTC()
+        );
+    }
+
+    DispatchCommandService(
+        Executor taskExecutor,
+        ObjectMapper objectMapper,
+        long maxEntries,
+        int maxInProgress,
+        Duration timeToLive,
+        Ticker ticker,
+        Clock clock
+    ) {
+        this.taskExecutor = taskExecutor;
+        this.maxInProgress = maxInProgress;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        // commands still running weigh nothing and never expire, so that they are never evicted
+        this.commands =
+            Caffeine
+                .newBuilder()
+                .maximumWeight(maxEntries)
+                .weigher((UUID id, Entry entry) -> entry.command.isCompleted() ? 1 : 0)
+                .expireAfter(new CompletedCommandExpiry(timeToLive.toNanos()))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Submit a command, unless a command was already submitted with the same idempotency key.
+     *
+     * @param idempotencyKey the key chosen by the client for this command.
+     * @param type the type of the command.
+     * @param droneId the id of the drone the command applies to, if any.
+     * @param payload the body of the command, compared with the one of a command submitted with the same key.
+     * @param action the action of the command.
+     * @return the command, as it stands.
+     * @throws IdempotencyKeyReusedException if the key was used for a different command.
+     * @throws RejectedExecutionException if too many commands are in progress, or the executor rejects the command.
+     */
+    public DispatchCommandDTO submit(
+        String idempotencyKey,
+        DispatchCommandDTO.Type type,
+        Long droneId,
+        Object payload,
+        Supplier<Drone> action
+    ) {
+        String owner = currentOwner();
+        UUID id = UUID.nameUUIDFromBytes((owner + '\n' + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        Entry entry = new Entry(owner, fingerprint(type, droneId, payload), new DispatchCommandDTO(id, type, droneId, clock.instant()));
+        Entry existing = commands.asMap().putIfAbsent(id, entry);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(entry.fingerprint)) {
+                throw new IdempotencyKeyReusedException("Idempotency key " + idempotencyKey + " was already used for another command");
+            }
+            log.debug("Request to submit Dispatch command {} again", id);
+            return existing.command;
+        }
+        log.debug("Request to submit Dispatch command : {}", entry.command);
+        try {
+            if (inProgress.incrementAndGet() > maxInProgress) {
+                throw new RejectedExecutionException("Too many dispatch commands in progress");
+            }
+            taskExecutor.execute(DelegatingSecurityContextRunnable.create(() -> run(entry, action), null));
+        } catch (RejectedExecutionException e) {
+            // the command never ran, the client may retry it with the same key
+            inProgress.decrementAndGet();
+            commands.invalidate(id);
+            throw e;
+        }
+        return Optional.ofNullable(commands.getIfPresent(id)).orElse(entry).command;
+    }
+
+    /**
+     * Get a command of the current user.
+     *
+     * @param id the id of the command.
+     * @return the command, as it stands, or empty if it does not exist, belongs to another user, or expired.
+     */
+    public Optional<DispatchCommandDTO> findOne(UUID id) {
+        log.debug("Request to get Dispatch command : {}", id);
+        return Optional.ofNullable(commands.getIfPresent(id)).filter(entry -> entry.owner.equals(currentOwner())).map(entry -> entry.command);
+    }
+
+    private void run(Entry entry, Supplier<Drone> action) {
+        DispatchCommandDTO command = entry.command.withStatus(DispatchCommandDTO.Status.RUNNING);
+        commands.put(command.getId(), entry.with(command));
+        DispatchCommandDTO outcome;
+        Throwable failure = null;
+        try {
+            Drone drone = action.get();
+            outcome = command.withStatus(DispatchCommandDTO.Status.SUCCEEDED);
+            outcome.setDrone(drone);
+        } catch (Throwable e) {
+            // a command left running would never expire, whatever stopped it
+            log.warn("Dispatch command {} failed: {}", command.getId(), e.toString());
+            failure = e;
+            outcome = command.withStatus(DispatchCommandDTO.Status.FAILED);
+            outcome.setErrorKey(errorKeyOf(e));
+            outcome.setError(e.getMessage());
+        }
+        outcome.setCompletedAt(clock.instant());
+        commands.put(outcome.getId(), entry.with(outcome));
+        inProgress.decrementAndGet();
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    private String fingerprint(DispatchCommandDTO.Type type, Long droneId, Object payload) {
+        try {
+            return type + ":" + droneId + ":" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read the command", e);
+        }
+    }
+
+    private static String errorKeyOf(Throwable e) {
+        if (e instanceof DroneLoadException) {
+            return ((DroneLoadException) e).getErrorKey();
+        }
+        if (e instanceof DroneStateException) {
+            return ((DroneStateException) e).getErrorKey();
+        }
+        if (e instanceof ConcurrencyFailureException) {
+            return CONCURRENCY_FAILURE_ERROR_KEY;
+        }
+        return INTERNAL_ERROR_KEY;
+    }
+
+    private static String currentOwner() {
+        return SecurityUtils.getCurrentUserLogin().orElse("");
+    }
+
+    /**
+     * A command, with who submitted it and a digest of what it asked for.
+     */
+    private static final class Entry {
+
+        private final String owner;
+
+        private final String fingerprint;
+
+        private final DispatchCommandDTO command;
+
+        Entry(String owner, String fingerprint, DispatchCommandDTO command) {
+            this.owner = owner;
+            this.fingerprint = fingerprint;
+            this.command = command;
+        }
+
+        Entry with(DispatchCommandDTO command) {
+            return new Entry(owner, fingerprint, command);
+        }
+    }
+
+    /**
+     * Running commands never expire, completed ones expire a fixed time after they complete.
+     */
+    private static final class CompletedCommandExpiry implements Expiry<UUID, Entry> {
+
+        private final long timeToLiveNanos;
+
+        CompletedCommandExpiry(long timeToLiveNanos) {
+            this.timeToLiveNanos = timeToLiveNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(UUID id, Entry entry, long currentTime) {
+            return entry.command.isCompleted() ? timeToLiveNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID id, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID id, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.yo.service;
+
+import com.yo.domain.enumeration.Model;
+import com.yo.domain.enumeration.State;
+import com.yo.service.dto.AvailableDroneDTO;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index of the fleet answering availability queries.
+ * <p>
+ * Every indexed drone owns a dense slot; one bitset per {@link State}, per battery bucket of 10% and per {@link Model}
+ * marks the slots matching that value, and the spare capacity of each slot is kept in a primitive array. A query
+ * intersects the bitsets and only checks the spare capacity of the remaining candidates.
+ */
+final class DroneAvailabilityIndex {
+
+    private static final int BATTERY_BUCKET_SIZE = 10;
+
+    private static final int BATTERY_BUCKETS = 100 / BATTERY_BUCKET_SIZE + 1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private final Map<State, BitSet> byState = new EnumMap<>(State.class);
+
+    private final Map<Model, BitSet> byModel = new EnumMap<>(Model.class);
+
+    private final BitSet[] byBattery = new BitSet[BATTERY_BUCKETS];
+
+    private long[] droneIds = new long[INITIAL_CAPACITY];
+
+    private State[] states = new State[INITIAL_CAPACITY];
+
+    private Model[] models = new Model[INITIAL_CAPACITY];
+
+    private int[] batteries = new int[INITIAL_CAPACITY];
+
+    private long[] spareCapacities = new long[INITIAL_CAPACITY];
+
+    private int nextSlot;
+
+    DroneAvailabilityIndex() {
+        for (State state : State.values()) {
+            byState.put(state, new BitSet());
+        }
+        for (Model model : Model.values()) {
+            byModel.put(model, new BitSet());
+        }
+        for (int i = 0; i < BATTERY_BUCKETS; i++) {
+            byBattery[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Insert or replace the indexed attributes of a drone.
+     */
+    void put(long droneId, State state, Model model, int batteryCapacity, long spareCapacity) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(droneId);
+            if (slot == null) {
+                slot = allocateSlot();
+                slots.put(droneId, slot);
+            } else {
+                clearBits(slot);
+            }
+            droneIds[slot] = droneId;
+            states[slot] = state;
+            models[slot] = model;
+            batteries[slot] = batteryCapacity;
+            spareCapacities[slot] = spareCapacity;
+            if (state != null) {
+                byState.get(state).set(slot);
+            }
+            if (model != null) {
+                byModel.get(model).set(slot);
+            }
+            byBattery[bucketOf(batteryCapacity)].set(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a drone from the index.
+     */
+    void remove(long droneId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(droneId);
+            if (slot != null) {
+                clearBits(slot);
+                freeSlots.push(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the drones in the given state, with at least the given battery level and spare capacity.
+     *
+     * @param state the required state.
+     * @param minBatteryCapacity the minimum battery level, in percent.
+     * @param weight the weight the drone must still be able to carry.
+     * @param model the required model, or {@code null} for any model.
+     * @return the matching drones, ordered by slot.
+     */
+    List<AvailableDroneDTO> find(State state, int minBatteryCapacity, long weight, Model model) {
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) byState.get(state).clone();
+            if (model != null) {
+                candidates.and(byModel.get(model));
+            }
+            int threshold = Math.max(0, minBatteryCapacity);
+            BitSet battery = new BitSet();
+            for (int bucket = bucketOf(threshold); bucket < BATTERY_BUCKETS; bucket++) {
+                battery.or(byBattery[bucket]);
+            }
+            candidates.and(battery);
+
+            List<AvailableDroneDTO> result = new ArrayList<>();
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                // only the lowest bucket can hold drones below the threshold
+                if (batteries[slot] >= threshold && spareCapacities[slot] >= weight) {
+                    result.add(
+                        new AvailableDroneDTO(droneIds[slot], models[slot], states[slot], batteries[slot], spareCapacities[slot])
+                    );
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (nextSlot == droneIds.length) {
+            int capacity = droneIds.length * 2;
+            droneIds = Arrays.copyOf(droneIds, capacity);
+            states = Arrays.copyOf(states, capacity);
+            models = Arrays.copyOf(models, capacity);
+            batteries = Arrays.copyOf(batteries, capacity);
+            spareCapacities = Arrays.copyOf(spareCapacities, capacity);
+        }
+        return nextSlot++;
+    }
+
+    private void clearBits(int slot) {
+        if (states[slot] != null) {
+            byState.get(states[slot]).clear(slot);
+        }
+        if (models[slot] != null) {
+            byModel.get(models[slot]).clear(slot);
+        }
+        byBattery[bucketOf(batteries[slot])].clear(slot);
+    }
+
+    private static int bucketOf(int batteryCapacity) {
+        return Math.min(Math.max(batteryCapacity, 0), 100) / BATTERY_BUCKET_SIZE;
+    }
+}
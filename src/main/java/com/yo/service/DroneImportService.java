@@ -0,0 +1,350 @@
+package com.yo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.yo.domain.Drone;
+import com.yo.repository.DroneRepository;
+import com.yo.service.dto.DroneImportErrorDTO;
+import com.yo.service.dto.DroneImportReportDTO;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service registering drones in bulk from a CSV or NDJSON stream.
+ * <p>
+ * Rows are read one at a time, classified and validated like a single registration, and inserted in chunks of
+ * {@value #CHUNK_SIZE} drones, each chunk with a single JDBC batch in its own transaction. Rejected rows are reported
+ * with their line number, and do not prevent the other rows from being imported: a chunk failing on insert is split
+ * until the failing rows are isolated.
+ */
+@Service
+public class DroneImportService {
+
+    /**
+     * Format of an import stream.
+     */
+    public enum Format {
+        /**
+         * Rows in the shape of {@code liquibase/fake-data/drone.csv}: a header line naming the columns, separated by
+         * {@code ;} or {@code ,}, then one drone per line. A value holding the separator is enclosed in double quotes,
+         * doubling the double quotes it holds; quoted values do not span lines.
+         */
+        CSV,
+        /**
+         * One JSON drone per line.
+         */
+        NDJSON,
+    }
+
+    static final int CHUNK_SIZE = 500;
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String SERIAL_NUMBER_COLUMN = "serial_number";
+
+    private static final String WEIGHT_LIMIT_COLUMN = "weight_limit";
+
+    private static final String BATTERY_CAPACITY_COLUMN = "battery_capacity";
+
+    private static final Pattern CAMEL_CASE = Pattern.compile("([a-z])([A-Z])");
+
+    private final Logger log = LoggerFactory.getLogger(DroneImportService.class);
+
+    private final DroneRepository droneRepository;
+
+    private final FleetStateIndex fleetStateIndex;
+
+    private final BatteryLevelCache batteryLevelCache;
+
+    private final Validator validator;
+
+    private final ObjectReader droneReader;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    @Autowired
+    public DroneImportService(
+        DroneRepository droneRepository,
+        FleetStateIndex fleetStateIndex,
+        BatteryLevelCache batteryLevelCache,
+        Validator validator,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager
+    ) {
+        this(droneRepository, fleetStateIndex, batteryLevelCache, validator, objectMapper, transactionManager, CHUNK_SIZE);
+    }
+
+    DroneImportService(
+        DroneRepository droneRepository,
+        FleetStateIndex fleetStateIndex,
+        BatteryLevelCache batteryLevelCache,
+        Validator validator,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        int chunkSize
+    ) {
+        this.droneRepository = droneRepository;
+        this.fleetStateIndex = fleetStateIndex;
+        this.batteryLevelCache = batteryLevelCache;
+        this.validator = validator;
+        this.droneReader = objectMapper.readerFor(Drone.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Register the drones read from a stream.
+     *
+     * @param reader the stream of drones.
+     * @param format the format of the stream.
+     * @return the report of the import.
+     * @throws IOException if the stream cannot be read.
+     */
+    public DroneImportReportDTO importDrones(Reader reader, Format format) throws IOException {
+        log.debug("Request to import Drones from {}", format);
+        DroneImportReportDTO report = new DroneImportReportDTO();
+        BufferedReader lines = new BufferedReader(reader);
+        CsvColumns columns = null;
+        List<Drone> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Drone drone;
+                if (format == Format.NDJSON) {
+                    drone = droneReader.readValue(line);
+                } else if (columns == null) {
+                    columns = CsvColumns.of(line);
+                    continue;
+                } else {
+                    drone = columns.parse(line);
+                }
+                chunk.add(validate(drone));
+                chunkLines.add(lineNumber);
+            } catch (JsonProcessingException e) {
+                reject(report, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                reject(report, lineNumber, e.getMessage());
+                if (columns == null && format == Format.CSV) {
+                    break;
+                }
+            }
+            if (chunk.size() == chunkSize) {
+                insertChunk(report, chunk, chunkLines);
+            }
+        }
+        insertChunk(report, chunk, chunkLines);
+        log.info("Imported {} Drones, rejected {} rows", report.getImported(), report.getRejected());
+        return report;
+    }
+
+    private Drone validate(Drone drone) {
+        if (drone == null) {
+            throw new IllegalArgumentException("A drone is required");
+        }
+        if (drone.getSerialNumber() == null || drone.getSerialNumber().isBlank()) {
+            throw new IllegalArgumentException("serialNumber is required");
+        }
+        if (drone.getWeightLimit() == null) {
+            throw new IllegalArgumentException("weightLimit is required");
+        }
+        if (drone.getWeightLimit() <= 0) {
+            throw new IllegalArgumentException("weightLimit must be positive");
+        }
+        drone.setId(null);
+        DroneRegistration.prepare(drone);
+        String violations = validator
+            .validate(drone)
+            .stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations);
+        }
+        return drone;
+    }
+
+    private void insertChunk(DroneImportReportDTO report, List<Drone> chunk, List<Long> chunkLines) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        insertAll(report, chunk, chunkLines);
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    /**
+     * Insert drones in a single batch; when the batch fails, insert each half on its own, so that only the rows
+     * causing the failure are rejected, at the cost of about two batches per bad row.
+     */
+    private void insertAll(DroneImportReportDTO report, List<Drone> drones, List<Long> lines) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                droneRepository.insertAll(drones);
+                fleetStateIndex.registerAll(drones);
+            });
+            drones.forEach(drone -> batteryLevelCache.evict(drone.getId()));
+            report.setImported(report.getImported() + drones.size());
+        } catch (RuntimeException e) {
+            // the rolled back attempt already assigned the ids and versions
+            drones.forEach(drone -> {
+                drone.setId(null);
+                drone.setVersion(null);
+            });
+            if (drones.size() == 1) {
+                String message = "Insert failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                log.warn("Could not import the Drone of line {}: {}", lines.get(0), message);
+                reject(report, lines.get(0), message);
+                return;
+            }
+            log.debug("Could not import {} Drones from line {}, retrying by halves", drones.size(), lines.get(0));
+            int half = drones.size() / 2;
+            insertAll(report, drones.subList(0, half), lines.subList(0, half));
+            insertAll(report, drones.subList(half, drones.size()), lines.subList(half, lines.size()));
+        }
+    }
+
+    private static void reject(DroneImportReportDTO report, long line, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new DroneImportErrorDTO(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * Positions of the known columns in the rows of a CSV stream, read from its header.
+     */
+    private static final class CsvColumns {
+
+        private final char separator;
+
+        private final int serialNumber;
+
+        private final int weightLimit;
+
+        private final int batteryCapacity;
+
+        private CsvColumns(char separator, int serialNumber, int weightLimit, int batteryCapacity) {
+            this.separator = separator;
+            this.serialNumber = serialNumber;
+            this.weightLimit = weightLimit;
+            this.batteryCapacity = batteryCapacity;
+        }
+
+        static CsvColumns of(String header) {
+            char separator = header.indexOf(';') >= 0 ? ';' : ',';
+            Map<String, Integer> positions = new HashMap<>();
+            List<String> names = split(header, separator);
+            for (int i = 0; i < names.size(); i++) {
+                positions.put(CAMEL_CASE.matcher(names.get(i).trim()).replaceAll("$1_$2").toLowerCase(Locale.ROOT), i);
+            }
+            if (!positions.containsKey(SERIAL_NUMBER_COLUMN) || !positions.containsKey(WEIGHT_LIMIT_COLUMN)) {
+                throw new IllegalArgumentException(
+                    "The header must name the " + SERIAL_NUMBER_COLUMN + " and " + WEIGHT_LIMIT_COLUMN + " columns"
+                );
+            }
+            return new CsvColumns(
+                separator,
+                positions.get(SERIAL_NUMBER_COLUMN),
+                positions.get(WEIGHT_LIMIT_COLUMN),
+                positions.getOrDefault(BATTERY_CAPACITY_COLUMN, -1)
+            );
+        }
+
+        Drone parse(String line) {
+            List<String> values = split(line, separator);
+            Drone drone = new Drone();
+            drone.setSerialNumber(value(values, serialNumber));
+            String weightLimitValue = value(values, weightLimit);
+            if (weightLimitValue != null) {
+                drone.setWeightLimit(parseNumber(WEIGHT_LIMIT_COLUMN, weightLimitValue));
+            }
+            String batteryCapacityValue = value(values, batteryCapacity);
+            if (batteryCapacityValue != null) {
+                drone.setBatteryCapacity(parseInteger(BATTERY_CAPACITY_COLUMN, batteryCapacityValue));
+            }
+            return drone;
+        }
+
+        private static String value(List<String> values, int position) {
+            if (position < 0 || position >= values.size()) {
+                return null;
+            }
+            String value = values.get(position).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        /**
+         * Split a line on the separators outside of double quotes, unquoting the quoted values.
+         */
+        static List<String> split(String line, char separator) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        quoted = !quoted;
+                    }
+                } else if (c == separator && !quoted) {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted value");
+            }
+            values.add(value.toString());
+            return values;
+        }
+
+        private static long parseNumber(String column, String value) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        private static int parseInteger(String column, String value) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+    }
+}
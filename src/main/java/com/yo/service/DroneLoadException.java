@@ -0,0 +1,20 @@
+package com.yo.service;
+
+/**
+ * Thrown when a load request cannot be applied to a drone.
+ */
+public class DroneLoadException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String errorKey;
+
+    public DroneLoadException(String message, String errorKey) {
+        super(message);
+        this.errorKey = errorKey;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+}
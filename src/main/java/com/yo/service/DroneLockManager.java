@@ -0,0 +1,123 @@
+package com.yo.service;
+
+import com.yo.config.ApplicationProperties;
+import com.yo.management.DroneLockMetersService;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-process locks keyed by drone id, serializing the loads of a drone without locking its row in the database.
+ * <p>
+ * Operations on different drones run in parallel, operations on the same drone run one after the other, in arrival
+ * order. A lock only exists while an operation holds it or waits for it, so idle drones cost nothing. The lock must be
+ * taken outside of the transaction of the operation, so that the next operation reads what the previous one committed.
+ * <p>
+ * Other instances of the application are not serialized: the conditional updates of the loaded weight remain the
+ * authority, the lock only keeps the operations of an instance from racing for them.
+ */
+@Service
+public class DroneLockManager {
+
+    private final Logger log = LoggerFactory.getLogger(DroneLockManager.class);
+
+    private final ConcurrentMap<Long, DroneLock> locks = new ConcurrentHashMap<>();
+
+    private final DroneLockMetersService droneLockMetersService;
+
+    private final Duration timeout;
+
+    @Autowired
+    public DroneLockManager(DroneLockMetersService droneLockMetersService, ApplicationProperties applicationProperties) {
+        this(droneLockMetersService, applicationProperties.getDroneLock().getTimeout());
+    }
+
+    DroneLockManager(DroneLockMetersService droneLockMetersService, Duration timeout) {
+        this.droneLockMetersService = droneLockMetersService;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Run an operation holding the lock of the "id" drone.
+     *
+     * @param id the id of the drone.
+     * @param operation the operation.
+     * @param <T> the type of the result of the operation.
+     * @return the result of the operation.
+     * @throws CannotAcquireLockException if the lock is not available within the configured timeout.
+     */
+    public <T> T withLock(Long id, Supplier<T> operation) {
+        DroneLock droneLock = locks.compute(id, (key, existing) -> (existing == null ? new DroneLock() : existing).join());
+        try {
+            acquire(id, droneLock);
+            try {
+                return operation.get();
+            } finally {
+                droneLock.lock.unlock();
+            }
+        } finally {
+            locks.computeIfPresent(id, (key, existing) -> existing.leave());
+        }
+    }
+
+    /**
+     * @return the number of drones locked or waited for.
+     */
+    int size() {
+        return locks.size();
+    }
+
+    private void acquire(Long id, DroneLock droneLock) {
+        long start = System.nanoTime();
+        boolean queued = false;
+        boolean acquired = false;
+        try {
+            // unlike tryLock(), a timed tryLock does not overtake the operations already waiting
+            if (droneLock.lock.tryLock(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            queued = true;
+            droneLockMetersService.trackQueued(droneLock.lock.getQueueLength() + 1);
+            acquired = droneLock.lock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long waitNanos = System.nanoTime() - start;
+        if (acquired) {
+            droneLockMetersService.trackAcquired(waitNanos);
+            return;
+        }
+        if (queued) {
+            droneLockMetersService.trackTimedOut(waitNanos);
+        }
+        log.warn("Drone {} still busy after {} ms", id, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        throw new CannotAcquireLockException("Drone " + id + " is busy");
+    }
+
+    /**
+     * A fair lock, and the number of operations holding or waiting for it, only changed within the map.
+     */
+    private static final class DroneLock {
+
+        private final ReentrantLock lock = new ReentrantLock(true);
+
+        private int users;
+
+        DroneLock join() {
+            users++;
+            return this;
+        }
+
+        DroneLock leave() {
+            return --users == 0 ? null : this;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.yo.service;
+
+import com.yo.domain.Drone;
+import com.yo.domain.enumeration.Model;
+
+/**
+ * Rules applied to a drone when it is registered, shared by single and bulk registration.
+ */
+public final class DroneRegistration {
+
+    private DroneRegistration() {}
+
+    /**
+     * Get the model of a drone from its weight limit.
+     *
+     * @param weightLimit the weight limit of the drone.
+     * @return the model of the drone.
+     */
+    public static Model modelFor(long weightLimit) {
+        if (weightLimit > 400 && weightLimit <= 500) {
+            return Model.Heavyweight;
+        } else if (weightLimit > 300 && weightLimit <= 400) {
+            return Model.Cruiserweight;
+        } else if (weightLimit > 200 && weightLimit <= 300) {
+            return Model.Middleweight;
+        }
+        return Model.Lightweight;
+    }
+
+    /**
+     * Classify a new drone from its weight limit, and register it idle and empty.
+     *
+     * @param drone the drone to register, with a weight limit.
+     * @return the drone.
+     */
+    public static Drone prepare(Drone drone) {
+        drone.setModel(modelFor(drone.getWeightLimit()));
+        drone.setState(DroneStateMachine.INITIAL_STATE);
+        drone.setLoadedWeight(0L);
+        return drone;
+    }
+}
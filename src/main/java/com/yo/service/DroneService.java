@@ -2,10 +2,14 @@ package com.yo.service;
 
 import com.yo.domain.Drone;
 import com.yo.domain.Medication;
+import com.yo.repository.DroneSummary;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 /**
  * Service Interface for managing {@link Drone}.
@@ -30,11 +34,21 @@ public interface DroneService {
      /**
      * Updates a drone with medication.
      *
-     * @param drone the entity to update.
-     * @return the persisted entity.
+     * @param id the id of the drone to load.
+     * @param medication the medication to load.
+     * @return the loaded drone, without its medications fetched.
      */
     Drone updateMedication(Long id, Medication medication);
 
+    /**
+     * Loads a drone with several medications in a single transaction.
+     *
+     * @param id the id of the drone to load.
+     * @param medications the medications to load, all accepted or all rejected.
+     * @return the loaded drone, without its medications fetched.
+     */
+    Drone loadMedications(Long id, List<Medication> medications);
+
     /**
      * Partially updates a drone.
      *
@@ -52,7 +66,54 @@ public interface DroneService {
     Page<Drone> findAll(Pageable pageable);
 
     /**
-     * Get the "id" drone.
+     * Get all the drones with eager load of their medications, in a fixed number of queries.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    Page<Drone> findAllWithEagerRelationships(Pageable pageable);
+
+    /**
+     * Get the drones following the given id, in id order, without counting them.
+     *
+     * @param id the id to read after.
+     * @param size the maximum number of drones.
+     * @param eagerload whether to load the medications of the drones.
+     * @return the slice of entities.
+     */
+    Slice<Drone> findAllAfter(Long id, int size, boolean eagerload);
+
+    /**
+     * Count the drones.
+     *
+     * @return the number of drones.
+     */
+    long count();
+
+    /**
+     * Get a page of drone summaries, without loading the entities.
+     *
+     * @param pageable the pagination information.
+     * @return the list of summaries.
+     */
+    Page<DroneSummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * Pass the summary of every drone to the consumer, in id order, without loading the entities.
+     *
+     * @param consumer the consumer of the summaries.
+     */
+    void streamAllSummaries(Consumer<DroneSummary> consumer);
+
+    /**
+     * Hand every drone, with its medications, to the consumer in id order, without holding the fleet in memory.
+     *
+     * @param consumer the consumer of the drones.
+     */
+    void exportAll(Consumer<Drone> consumer);
+
+    /**
+     * Get the "id" drone, with its medications.
      *
      * @param id the id of the entity.
      * @return the entity.
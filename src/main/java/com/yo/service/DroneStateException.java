@@ -0,0 +1,29 @@
+package com.yo.service;
+
+/**
+ * Thrown when a drone cannot move to a requested state.
+ */
+public class DroneStateException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Error key of a transition lost to a concurrent one: the drone left the expected state meanwhile.
+     */
+    public static final String STATE_CHANGED = "statechanged";
+
+    private final String errorKey;
+
+    public DroneStateException(String message, String errorKey) {
+        super(message);
+        this.errorKey = errorKey;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public boolean isConflict() {
+        return STATE_CHANGED.equals(errorKey);
+    }
+}
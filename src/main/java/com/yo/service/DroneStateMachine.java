@@ -0,0 +1,153 @@
+package com.yo.service;
+
+import com.yo.domain.Drone;
+import com.yo.domain.enumeration.State;
+import com.yo.repository.DroneRepository;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * State machine of the drones.
+ * <p>
+ * A drone goes {@code IDLE -> LOADING -> LOADED -> DELIVERING -> DELIVERED -> RETURNING -> IDLE}, and may go back from
+ * {@code LOADING} to {@code IDLE} when loading is abandoned. It can only enter {@code LOADING} with a battery level of
+ * at least {@value #MIN_LOADING_BATTERY_CAPACITY}%.
+ * <p>
+ * Transitions are applied with a compare-and-set update on the expected state, so that of several dispatchers
+ * claiming the same drone exactly one wins, without locking the row beyond the update itself.
+ */
+@Service
+@Transactional
+public class DroneStateMachine {
+
+    /**
+     * State of newly registered drones.
+     */
+    public static final State INITIAL_STATE = State.IDLE;
+
+    /**
+     * Minimum battery level, in percent, for a drone to enter {@code LOADING}.
+     */
+    public static final int MIN_LOADING_BATTERY_CAPACITY = 25;
+
+    private static final Map<State, Set<State>> TRANSITIONS = new EnumMap<>(State.class);
+
+    static {
+        TRANSITIONS.put(State.IDLE, EnumSet.of(State.LOADING));
+        TRANSITIONS.put(State.LOADING, EnumSet.of(State.LOADED, State.IDLE));
+        TRANSITIONS.put(State.LOADED, EnumSet.of(State.DELIVERING));
+        TRANSITIONS.put(State.DELIVERING, EnumSet.of(State.DELIVERED));
+        TRANSITIONS.put(State.DELIVERED, EnumSet.of(State.RETURNING));
+        TRANSITIONS.put(State.RETURNING, EnumSet.of(State.IDLE));
+    }
+
+    private final Logger log = LoggerFactory.getLogger(DroneStateMachine.class);
+
+    private final DroneRepository droneRepository;
+
+    private final FleetStateIndex fleetStateIndex;
+
+    public DroneStateMachine(DroneRepository droneRepository, FleetStateIndex fleetStateIndex) {
+        this.droneRepository = droneRepository;
+        this.fleetStateIndex = fleetStateIndex;
+    }
+
+    /**
+     * Get the states a drone may move to from the given state.
+     *
+     * @param from the current state.
+     * @return the next states.
+     */
+    public static Set<State> nextStates(State from) {
+        return Collections.unmodifiableSet(TRANSITIONS.getOrDefault(from, EnumSet.noneOf(State.class)));
+    }
+
+    /**
+     * Check whether a drone with the given battery level may move between two states.
+     *
+     * @param from the current state.
+     * @param to the target state.
+     * @param batteryCapacity the battery level of the drone, or {@code null} if unknown.
+     * @throws DroneStateException if the transition is not allowed.
+     */
+    public static void checkTransition(State from, State to, Integer batteryCapacity) {
+        checkAllowed(from, to);
+        if (to == State.LOADING && (batteryCapacity == null || batteryCapacity < MIN_LOADING_BATTERY_CAPACITY)) {
+            throw new DroneStateException("Drone battery is below " + MIN_LOADING_BATTERY_CAPACITY + "%", "batterylow");
+        }
+    }
+
+    /**
+     * Move the "id" drone from the expected state to the target state, if no one moved it meanwhile.
+     *
+     * @param id the id of the drone.
+     * @param from the expected current state.
+     * @param to the target state.
+     * @return the drone in its new state.
+     * @throws DroneStateException if the transition is not allowed, or the drone is not in the expected state anymore.
+     */
+    public Drone transition(Long id, State from, State to) {
+        log.debug("Request to move Drone {} from {} to {}", id, from, to);
+        // the battery rule is checked by the update itself, against the stored battery level
+        checkAllowed(from, to);
+        int minBatteryCapacity = to == State.LOADING ? MIN_LOADING_BATTERY_CAPACITY : 0;
+        if (droneRepository.compareAndSetState(id, from, to, minBatteryCapacity) == 0) {
+            throw failure(droneRepository.findById(id), from, to);
+        }
+        Drone drone = droneRepository.findById(id).orElseThrow();
+        fleetStateIndex.refresh(drone);
+        return drone;
+    }
+
+    /**
+     * Move a drone being updated in the current transaction to the target state, if no one moved it meanwhile.
+     * <p>
+     * The battery rule is checked against the battery level of the given drone, which the update is about to write.
+     * The persistence context is cleared by the state update, so the caller must save the drone afterwards; its version
+     * is moved past the state update, and the save fails with an optimistic locking failure if anyone else wrote the
+     * drone since it was read.
+     *
+     * @param drone the drone, in the state it was read in.
+     * @param to the target state, or {@code null} to keep the current one.
+     * @throws DroneStateException if the transition is not allowed, or the drone is not in its state anymore.
+     */
+    public void transition(Drone drone, State to) {
+        State from = drone.getState();
+        if (to == null || to == from) {
+            return;
+        }
+        log.debug("Request to move Drone {} from {} to {}", drone.getId(), from, to);
+        checkTransition(from, to, drone.getBatteryCapacity());
+        if (droneRepository.compareAndSetState(drone.getId(), from, to, 0) == 0) {
+            throw failure(droneRepository.findById(drone.getId()), from, to);
+        }
+        drone.setState(to);
+        if (drone.getVersion() != null) {
+            drone.setVersion(drone.getVersion() + 1);
+        }
+    }
+
+    private static void checkAllowed(State from, State to) {
+        if (!nextStates(from).contains(to)) {
+            throw new DroneStateException("Drone cannot go from " + from + " to " + to, "transitioninvalid");
+        }
+    }
+
+    private static DroneStateException failure(Optional<Drone> drone, State from, State to) {
+        if (drone.isEmpty()) {
+            return new DroneStateException("Drone not found", "idnotfound");
+        }
+        if (drone.get().getState() != from) {
+            return new DroneStateException("Drone is " + drone.get().getState() + ", not " + from, DroneStateException.STATE_CHANGED);
+        }
+        return new DroneStateException("Drone battery is below " + MIN_LOADING_BATTERY_CAPACITY + "%", "batterylow");
+    }
+}
@@ -0,0 +1,339 @@
+package com.yo.service;
+
+import com.yo.domain.Drone;
+import com.yo.domain.Medication;
+import com.yo.domain.enumeration.Model;
+import com.yo.domain.enumeration.State;
+import com.yo.repository.DroneRepository;
+import com.yo.repository.DroneSummary;
+import com.yo.service.dto.AvailableDroneDTO;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-through, in-memory index of the fleet state used to answer load decisions.
+ * <p>
+ * Entries are loaded from the database when the application starts, reading the persisted {@code loadedWeight}
+ * aggregate, and kept current by the services writing drones and medications. Weight reservations are applied
+ * immediately, so that concurrent loads see each other, and are released if the surrounding transaction rolls back.
+ * Drones are read as {@link DroneSummary} projections, and reads made once a transaction completed run in a transaction
+ * of their own.
+ * Every change is also published to a {@link DroneAvailabilityIndex} answering availability queries.
+ */
+@Service
+public class FleetStateIndex {
+
+    /**
+     * Weight limit assumed for drones registered without one, matching the {@code @Max} constraint on {@link Drone}.
+     */
+    public static final long MAX_WEIGHT_LIMIT = 500L;
+
+    private final Logger log = LoggerFactory.getLogger(FleetStateIndex.class);
+
+    private final ConcurrentMap<Long, DroneState> entries = new ConcurrentHashMap<>();
+
+    private final DroneAvailabilityIndex availabilityIndex = new DroneAvailabilityIndex();
+
+    private final DroneRepository droneRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public FleetStateIndex(DroneRepository droneRepository, PlatformTransactionManager transactionManager) {
+        this.droneRepository = droneRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Load the whole fleet, so that availability queries cover every drone. Drones are streamed by chunks of the fetch
+     * size, without entering the persistence context.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFleet() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<DroneSummary> summaries = droneRepository.streamAllSummariesBy()) {
+                summaries.forEach(summary -> put(summary.getId(), new DroneState(summary)));
+            }
+        });
+        log.info("Fleet state index loaded with {} drones", availabilityIndex.size());
+    }
+
+    /**
+     * Get the indexed state of the "id" drone, loading it from the database if it is not indexed yet.
+     *
+     * @param droneId the id of the drone.
+     * @return the indexed state, or empty if the drone does not exist.
+     */
+    public Optional<DroneState> find(Long droneId) {
+        DroneState state = entries.get(droneId);
+        if (state != null) {
+            return Optional.of(state);
+        }
+        return droneRepository.findSummaryById(droneId).map(summary -> putIfAbsent(droneId, new DroneState(summary)));
+    }
+
+    /**
+     * Find the drones in the given state, with at least the given battery level and spare capacity, without
+     * reaching the database.
+     *
+     * @param state the required state.
+     * @param minBatteryCapacity the minimum battery level, in percent.
+     * @param weight the weight the drone must still be able to carry.
+     * @param model the required model, or {@code null} for any model.
+     * @return the matching drones.
+     */
+    public List<AvailableDroneDTO> findAvailable(State state, int minBatteryCapacity, long weight, Model model) {
+        return availabilityIndex.find(state, minBatteryCapacity, weight, model);
+    }
+
+    /**
+     * Reserve capacity on the "id" drone for the given weight.
+     * <p>
+     * The reservation is released if the current transaction rolls back.
+     *
+     * @param droneId the id of the drone to load.
+     * @param weight the weight to reserve.
+     * @throws DroneLoadException if the drone does not exist or does not have enough spare capacity.
+     */
+    public void reserve(Long droneId, long weight) {
+        DroneState state = find(droneId).orElseThrow(() -> new DroneLoadException("Drone not found", "idnotfound"));
+        if (!state.tryReserve(weight)) {
+            throw new DroneLoadException("Drone weight limit exceeded", "weightlimitexceeded");
+        }
+        publish(droneId, state);
+        log.debug("Reserved {} on Drone {}, loaded weight is now {}", weight, droneId, state.getLoadedWeight());
+        onCompletion(
+            () -> {},
+            () -> {
+                state.release(weight);
+                publish(droneId, state);
+            }
+        );
+    }
+
+    /**
+     * Refresh the indexed attributes of a drone once the current transaction commits.
+     *
+     * @param drone the persisted drone.
+     */
+    public void refresh(Drone drone) {
+        Long droneId = drone.getId();
+        State state = drone.getState();
+        Model model = drone.getModel();
+        int batteryCapacity = valueOf(drone.getBatteryCapacity());
+        long weightLimit = weightLimitOf(drone);
+        onCompletion(
+            () -> {
+                DroneState existing = entries.get(droneId);
+                if (existing != null) {
+                    existing.update(state, model, batteryCapacity, weightLimit);
+                    publish(droneId, existing);
+                } else {
+                    reload(droneId);
+                }
+            },
+            () -> {}
+        );
+    }
+
+    /**
+     * Index newly inserted drones once the current transaction commits, without reading them back.
+     *
+     * @param drones the inserted drones.
+     */
+    public void registerAll(List<Drone> drones) {
+        Map<Long, DroneState> states = new LinkedHashMap<>();
+        drones.forEach(drone -> states.put(drone.getId(), new DroneState(drone)));
+        onCompletion(() -> states.forEach(this::putIfAbsent), () -> {});
+    }
+
+    /**
+     * Reload the "id" drone from the database once the current transaction commits, dropping it if it no longer exists.
+     * A rollback leaves the entry as it was before the transaction.
+     *
+     * @param droneId the id of the drone.
+     */
+    public void evict(Long droneId) {
+        if (droneId == null) {
+            return;
+        }
+        onCompletion(() -> reload(droneId), () -> {});
+    }
+
+    /**
+     * Reload the "id" drone from the database once the current transaction completes, even if it rolls back: the
+     * database showed that the entry is behind writes made by another instance.
+     *
+     * @param droneId the id of the drone.
+     */
+    public void resync(Long droneId) {
+        onCompletion(() -> reload(droneId), () -> reload(droneId));
+    }
+
+    /**
+     * Get the weight carried by a medication, treating a missing weight as zero.
+     *
+     * @param medication the medication.
+     * @return the weight of the medication.
+     */
+    public static long weightOf(Medication medication) {
+        return medication.getWeght() == null ? 0L : medication.getWeght();
+    }
+
+    /**
+     * Once a transaction completed, its resources are still bound to the thread: the drone is read in a new transaction,
+     * so that it sees what is committed.
+     */
+    private void reload(Long droneId) {
+        Optional<DroneSummary> summary = transactionTemplate.execute(status -> droneRepository.findSummaryById(droneId));
+        if (summary.isPresent()) {
+            put(droneId, new DroneState(summary.get()));
+        } else {
+            entries.remove(droneId);
+            availabilityIndex.remove(droneId);
+        }
+    }
+
+    private void put(Long droneId, DroneState state) {
+        entries.put(droneId, state);
+        publish(droneId, state);
+    }
+
+    private DroneState putIfAbsent(Long droneId, DroneState state) {
+        DroneState previous = entries.putIfAbsent(droneId, state);
+        if (previous != null) {
+            return previous;
+        }
+        publish(droneId, state);
+        return state;
+    }
+
+    /**
+     * Publishing under the entry monitor guarantees the availability index ends up with the latest values.
+     */
+    private void publish(Long droneId, DroneState state) {
+        synchronized (state) {
+            if (entries.get(droneId) == state) {
+                availabilityIndex.put(droneId, state.state, state.model, state.batteryCapacity, state.getSpareCapacity());
+            }
+        }
+    }
+
+    private static long weightLimitOf(Drone drone) {
+        return drone.getWeightLimit() == null ? MAX_WEIGHT_LIMIT : drone.getWeightLimit();
+    }
+
+    private static int valueOf(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private static void onCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        onCommit.run();
+                    } else {
+                        onRollback.run();
+                    }
+                }
+            }
+        );
+    }
+
+    /**
+     * Indexed state of a single drone.
+     */
+    public static final class DroneState {
+
+        private State state;
+
+        private Model model;
+
+        private int batteryCapacity;
+
+        private long weightLimit;
+
+        private long loadedWeight;
+
+        DroneState(Drone drone) {
+            this(drone.getState(), drone.getModel(), drone.getBatteryCapacity(), drone.getWeightLimit(), drone.getLoadedWeight());
+        }
+
+        DroneState(DroneSummary summary) {
+            this(summary.getState(), summary.getModel(), summary.getBatteryCapacity(), summary.getWeightLimit(), summary.getLoadedWeight());
+        }
+
+        private DroneState(State state, Model model, Integer batteryCapacity, Long weightLimit, Long loadedWeight) {
+            this.state = state;
+            this.model = model;
+            this.batteryCapacity = valueOf(batteryCapacity);
+            this.weightLimit = weightLimit == null ? MAX_WEIGHT_LIMIT : weightLimit;
+            this.loadedWeight = loadedWeight == null ? 0L : loadedWeight;
+        }
+
+        public synchronized State getState() {
+            return state;
+        }
+
+        public synchronized Model getModel() {
+            return model;
+        }
+
+        public synchronized int getBatteryCapacity() {
+            return batteryCapacity;
+        }
+
+        public synchronized long getWeightLimit() {
+            return weightLimit;
+        }
+
+        public synchronized long getLoadedWeight() {
+            return loadedWeight;
+        }
+
+        public synchronized long getSpareCapacity() {
+            return weightLimit - loadedWeight;
+        }
+
+        synchronized boolean tryReserve(long weight) {
+            if (loadedWeight + weight > weightLimit) {
+                return false;
+            }
+            loadedWeight += weight;
+            return true;
+        }
+
+        synchronized void release(long weight) {
+            loadedWeight -= weight;
+        }
+
+        synchronized void update(State state, Model model, int batteryCapacity, long weightLimit) {
+            this.state = state;
+            this.model = model;
+            this.batteryCapacity = batteryCapacity;
+            this.weightLimit = weightLimit;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.yo.service;
+
+/**
+ * Thrown when an idempotency key already used for a command is sent again with a different command.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
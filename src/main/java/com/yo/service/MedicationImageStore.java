@@ -0,0 +1,201 @@
+package com.yo.service;
+
+import com.yo.config.ApplicationProperties;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+/**
+ * Store of the images of the medications on the local disk, addressed by the SHA-256 hash of their content.
+ * <p>
+ * An image is written to a temporary file while it is hashed, then renamed to its hash: readers never see a partial
+ * image, and an image uploaded several times is stored once. Images are never modified, so their hash is also a strong
+ * validator of their content.
+ * <p>
+ * The type of an image is only ever read from its magic number, among the types that browsers display as images and
+ * never run: PNG, JPEG, GIF and WebP.
+ */
+@Service
+public class MedicationImageStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    public static final MediaType IMAGE_WEBP = new MediaType("image", "webp");
+
+    /**
+     * Number of bytes read to find the type of an image: the RIFF header of a WebP image is the longest magic number.
+     */
+    private static final int MAGIC_NUMBER_LENGTH = 12;
+
+    private static final byte[] PNG_MAGIC_NUMBER = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private static final byte[] JPEG_MAGIC_NUMBER = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF };
+
+    private static final byte[] GIF87A_MAGIC_NUMBER = { 'G', 'I', 'F', '8', '7', 'a' };
+
+    private static final byte[] GIF89A_MAGIC_NUMBER = { 'G', 'I', 'F', '8', '9', 'a' };
+
+    private static final byte[] RIFF_MAGIC_NUMBER = { 'R', 'I', 'F', 'F' };
+
+    private static final byte[] WEBP_MAGIC_NUMBER = { 'W', 'E', 'B', 'P' };
+
+    private final Logger log = LoggerFactory.getLogger(MedicationImageStore.class);
+
+    private final Path directory;
+
+    public MedicationImageStore(ApplicationProperties applicationProperties) {
+        this.directory = Paths.get(applicationProperties.getMedicationImages().getDirectory()).toAbsolutePath();
+    }
+
+    /**
+     * Store an image, unless an image with the same content is already stored.
+     *
+     * @param image the content of the image, read to its end but not closed.
+     * @return the SHA-256 hash of the image, in lower-case hexadecimal.
+     * @throws IOException if the image could not be read or written.
+     */
+    public String store(InputStream image) throws IOException {
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                OutputStream out = new DigestOutputStream(Channels.newOutputStream(channel), digest);
+                image.transferTo(out);
+                out.flush();
+                // the image must be on disk before it is found under its hash, which is never written again
+                channel.force(true);
+            }
+            String hash = toHex(digest.digest());
+            Path file = fileOf(hash);
+            if (Files.exists(file)) {
+                log.debug("Image already stored : {}", hash);
+                return hash;
+            }
+            Files.createDirectories(file.getParent());
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // stored meanwhile by a concurrent upload of the same image
+            }
+            log.debug("Stored image : {}", hash);
+            return hash;
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Find a stored image.
+     *
+     * @param hash the SHA-256 hash of the image.
+     * @return the file of the image, or empty if the hash is not valid or no such image is stored.
+     */
+    public Optional<Path> find(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path file = fileOf(hash);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Get the type of an image about to be stored.
+     *
+     * @param image the content of the image, which must support {@link InputStream#mark}: it is reset to where it was.
+     * @return the type of the image, or empty if it is not one of the supported types.
+     * @throws IOException if the image could not be read.
+     */
+    public Optional<MediaType> typeOf(InputStream image) throws IOException {
+        if (!image.markSupported()) {
+            throw new IllegalArgumentException("The type of an image is read from a stream that supports mark");
+        }
+        image.mark(MAGIC_NUMBER_LENGTH);
+        byte[] magicNumber = image.readNBytes(MAGIC_NUMBER_LENGTH);
+        image.reset();
+        return typeOf(magicNumber);
+    }
+
+    /**
+     * Get the type of a stored image.
+     *
+     * @param file the file of the image.
+     * @return the type of the image, or empty if it is not one of the supported types.
+     * @throws IOException if the image could not be read.
+     */
+    public Optional<MediaType> typeOf(Path file) throws IOException {
+        ByteBuffer magicNumber = ByteBuffer.allocate(MAGIC_NUMBER_LENGTH);
+        try (FileChannel channel = FileChannel.open(file)) {
+            while (magicNumber.hasRemaining() && channel.read(magicNumber) >= 0) {
+                // reads the magic number, or the whole image if it is shorter
+            }
+        }
+        return typeOf(Arrays.copyOf(magicNumber.array(), magicNumber.position()));
+    }
+
+    private static Optional<MediaType> typeOf(byte[] magicNumber) {
+        if (startsWith(magicNumber, 0, PNG_MAGIC_NUMBER)) {
+            return Optional.of(MediaType.IMAGE_PNG);
+        }
+        if (startsWith(magicNumber, 0, JPEG_MAGIC_NUMBER)) {
+            return Optional.of(MediaType.IMAGE_JPEG);
+        }
+        if (startsWith(magicNumber, 0, GIF87A_MAGIC_NUMBER) || startsWith(magicNumber, 0, GIF89A_MAGIC_NUMBER)) {
+            return Optional.of(MediaType.IMAGE_GIF);
+        }
+        // the size of the file sits between the RIFF and WEBP markers
+        if (startsWith(magicNumber, 0, RIFF_MAGIC_NUMBER) && startsWith(magicNumber, 8, WEBP_MAGIC_NUMBER)) {
+            return Optional.of(IMAGE_WEBP);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, byte[] prefix) {
+        return (
+            bytes.length >= offset + prefix.length && Arrays.equals(bytes, offset, offset + prefix.length, prefix, 0, prefix.length)
+        );
+    }
+
+    /**
+     * Images are spread over directories named after the first byte of their hash, to keep the directories small.
+     */
+    private Path fileOf(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -1,9 +1,11 @@
 package com.yo.service;
 
 import com.yo.domain.Medication;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 /**
  * Service Interface for managing {@link Medication}.
@@ -11,12 +13,22 @@ import org.springframework.data.domain.Pageable;
 public interface MedicationService {
     /**
      * Save a medication.
+     * <p>
+     * A medication that already has an id is {@link #update(Medication) updated}, so that its weight is not loaded twice.
      *
      * @param medication the entity to save.
      * @return the persisted entity.
      */
     Medication save(Medication medication);
 
+    /**
+     * Save several medications, letting the inserts go out in JDBC batches.
+     *
+     * @param medications the entities to save.
+     * @return the persisted entities.
+     */
+    List<Medication> saveAll(List<Medication> medications);
+
     /**
      * Updates a medication.
      *
@@ -41,6 +53,22 @@ public interface MedicationService {
      */
     Page<Medication> findAll(Pageable pageable);
 
+    /**
+     * Get the medications following the given id, in id order, without counting them.
+     *
+     * @param id the id to read after.
+     * @param size the maximum number of medications.
+     * @return the slice of entities.
+     */
+    Slice<Medication> findAllAfter(Long id, int size);
+
+    /**
+     * Count the medications.
+     *
+     * @return the number of medications.
+     */
+    long count();
+
     /**
      * Get the "id" medication.
      *
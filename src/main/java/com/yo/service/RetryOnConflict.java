@@ -0,0 +1,45 @@
+package com.yo.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+/**
+ * Retry a transactional service method which lost an optimistic locking race, in a new transaction reading the
+ * entities again.
+ * <p>
+ * Attempts and backoff are configured under {@code application.optimistic-lock}. Conflicts and retries are counted by
+ * the {@code optimisticLockRetryListener}, tagged with the name of the operation.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(
+    value = OptimisticLockingFailureException.class,
+    maxAttemptsExpression = "${application.optimistic-lock.max-attempts:3}",
+    backoff = @Backoff(
+        delayExpression = "${application.optimistic-lock.backoff-delay:20}",
+        maxDelayExpression = "${application.optimistic-lock.max-backoff-delay:200}",
+        multiplier = 2,
+        random = true
+    ),
+    listeners = RetryOnConflict.LISTENER
+)
+public @interface RetryOnConflict {
+    /**
+     * Name of the bean listening to the retries.
+     */
+    String LISTENER = "optimisticLockRetryListener";
+
+    /**
+     * Name of the operation, used to tag its contention meters.
+     */
+    @AliasFor(annotation = Retryable.class, attribute = "label")
+    String value();
+}
@@ -0,0 +1,105 @@
+package com.yo.service.dto;
+
+import com.yo.domain.enumeration.Model;
+import com.yo.domain.enumeration.State;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO describing a drone able to take a load, as seen by the fleet index.
+ */
+public class AvailableDroneDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Model model;
+
+    private State state;
+
+    private Integer batteryCapacity;
+
+    private Long spareCapacity;
+
+    public AvailableDroneDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public AvailableDroneDTO(Long id, Model model, State state, Integer batteryCapacity, Long spareCapacity) {
+        this.id = id;
+        this.model = model;
+        this.state = state;
+        this.batteryCapacity = batteryCapacity;
+        this.spareCapacity = spareCapacity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    public void setModel(Model model) {
+        this.model = model;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public Integer getBatteryCapacity() {
+        return batteryCapacity;
+    }
+
+    public void setBatteryCapacity(Integer batteryCapacity) {
+        this.batteryCapacity = batteryCapacity;
+    }
+
+    public Long getSpareCapacity() {
+        return spareCapacity;
+    }
+
+    public void setSpareCapacity(Long spareCapacity) {
+        this.spareCapacity = spareCapacity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AvailableDroneDTO)) {
+            return false;
+        }
+        AvailableDroneDTO availableDroneDTO = (AvailableDroneDTO) o;
+        return Objects.equals(id, availableDroneDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AvailableDroneDTO{" +
+            "id=" + getId() +
+            ", model='" + getModel() + "'" +
+            ", state='" + getState() + "'" +
+            ", batteryCapacity=" + getBatteryCapacity() +
+            ", spareCapacity=" + getSpareCapacity() +
+            "}";
+    }
+}
@@ -0,0 +1,89 @@
+package com.yo.service.dto;
+
+import com.yo.repository.BatteryHistoryRepository.Resolution;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the battery history of a drone, or of the whole fleet, over a window.
+ */
+public class BatteryHistoryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long droneId;
+
+    private Resolution resolution;
+
+    private Instant from;
+
+    private Instant to;
+
+    private List<BatteryHistoryPointDTO> points = new ArrayList<>();
+
+    public BatteryHistoryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BatteryHistoryDTO(Long droneId, Resolution resolution, Instant from, Instant to, List<BatteryHistoryPointDTO> points) {
+        this.droneId = droneId;
+        this.resolution = resolution;
+        this.from = from;
+        this.to = to;
+        this.points = points;
+    }
+
+    public Long getDroneId() {
+        return droneId;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(Resolution resolution) {
+        this.resolution = resolution;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public List<BatteryHistoryPointDTO> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<BatteryHistoryPointDTO> points) {
+        this.points = points;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatteryHistoryDTO{" +
+            "droneId=" + getDroneId() +
+            ", resolution='" + getResolution() + "'" +
+            ", from='" + getFrom() + "'" +
+            ", to='" + getTo() + "'" +
+            ", points=" + getPoints().size() +
+            "}";
+    }
+}
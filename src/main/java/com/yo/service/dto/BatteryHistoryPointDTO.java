@@ -0,0 +1,104 @@
+package com.yo.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the battery readings aggregated over one bucket of a battery history.
+ */
+public class BatteryHistoryPointDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Instant bucketStart;
+
+    private Integer min;
+
+    private Integer max;
+
+    private Double avg;
+
+    private Long count;
+
+    public BatteryHistoryPointDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BatteryHistoryPointDTO(Instant bucketStart, Integer min, Integer max, Double avg, Long count) {
+        this.bucketStart = bucketStart;
+        this.min = min;
+        this.max = max;
+        this.avg = avg;
+        this.count = count;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Integer getMin() {
+        return min;
+    }
+
+    public void setMin(Integer min) {
+        this.min = min;
+    }
+
+    public Integer getMax() {
+        return max;
+    }
+
+    public void setMax(Integer max) {
+        this.max = max;
+    }
+
+    public Double getAvg() {
+        return avg;
+    }
+
+    public void setAvg(Double avg) {
+        this.avg = avg;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BatteryHistoryPointDTO)) {
+            return false;
+        }
+        BatteryHistoryPointDTO batteryHistoryPointDTO = (BatteryHistoryPointDTO) o;
+        return Objects.equals(bucketStart, batteryHistoryPointDTO.bucketStart);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bucketStart);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatteryHistoryPointDTO{" +
+            "bucketStart='" + getBucketStart() + "'" +
+            ", min=" + getMin() +
+            ", max=" + getMax() +
+            ", avg=" + getAvg() +
+            ", count=" + getCount() +
+            "}";
+    }
+}
@@ -0,0 +1,80 @@
+package com.yo.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the battery level of a drone, as of the time it was read from the database.
+ */
+public class BatteryLevelDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Integer batteryCapacity;
+
+    private Instant refreshedAt;
+
+    public BatteryLevelDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BatteryLevelDTO(Long id, Integer batteryCapacity, Instant refreshedAt) {
+        this.id = id;
+        this.batteryCapacity = batteryCapacity;
+        this.refreshedAt = refreshedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getBatteryCapacity() {
+        return batteryCapacity;
+    }
+
+    public void setBatteryCapacity(Integer batteryCapacity) {
+        this.batteryCapacity = batteryCapacity;
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public void setRefreshedAt(Instant refreshedAt) {
+        this.refreshedAt = refreshedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BatteryLevelDTO)) {
+            return false;
+        }
+        BatteryLevelDTO batteryLevelDTO = (BatteryLevelDTO) o;
+        return Objects.equals(id, batteryLevelDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatteryLevelDTO{" +
+            "id=" + getId() +
+            ", batteryCapacity=" + getBatteryCapacity() +
+            ", refreshedAt='" + getRefreshedAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,171 @@
+package com.yo.service.dto;
+
+import com.yo.domain.Drone;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A DTO for an asynchronous dispatch command: what it asked for, where it stands and, once completed, its outcome.
+ */
+public class DispatchCommandDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * What a command asks for.
+     */
+    public enum Type {
+        /**
+         * Load a medication onto a drone.
+         */
+        LOAD,
+        /**
+         * Register a new drone.
+         */
+        REGISTER,
+    }
+
+    /**
+     * Where a command stands.
+     */
+    public enum Status {
+        PENDING,
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+    }
+
+    private UUID id;
+
+    private Type type;
+
+    private Status status;
+
+    private Long droneId;
+
+    private Drone drone;
+
+    private String errorKey;
+
+    private String error;
+
+    private Instant submittedAt;
+
+    private Instant completedAt;
+
+    public DispatchCommandDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public DispatchCommandDTO(UUID id, Type type, Long droneId, Instant submittedAt) {
+        this.id = id;
+        this.type = type;
+        this.status = Status.PENDING;
+        this.droneId = droneId;
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * @return a copy of this command, in the given status.
+     */
+    public DispatchCommandDTO withStatus(Status status) {
+        DispatchCommandDTO copy = new DispatchCommandDTO(id, type, droneId, submittedAt);
+        copy.setStatus(status);
+        copy.setDrone(drone);
+        copy.setErrorKey(errorKey);
+        copy.setError(error);
+        copy.setCompletedAt(completedAt);
+        return copy;
+    }
+
+    public boolean isCompleted() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getDroneId() {
+        return droneId;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public Drone getDrone() {
+        return drone;
+    }
+
+    public void setDrone(Drone drone) {
+        this.drone = drone;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public void setErrorKey(String errorKey) {
+        this.errorKey = errorKey;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DispatchCommandDTO{" +
+            "id=" + getId() +
+            ", type='" + getType() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", droneId=" + getDroneId() +
+            ", errorKey='" + getErrorKey() + "'" +
+            ", submittedAt='" + getSubmittedAt() + "'" +
+            ", completedAt='" + getCompletedAt() + "'" +
+            "}";
+    }
+}
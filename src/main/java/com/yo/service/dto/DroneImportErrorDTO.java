@@ -0,0 +1,49 @@
+package com.yo.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for a row rejected by a bulk drone import.
+ */
+public class DroneImportErrorDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long line;
+
+    private String message;
+
+    public DroneImportErrorDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public DroneImportErrorDTO(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneImportErrorDTO{" +
+            "line=" + getLine() +
+            ", message='" + getMessage() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,63 @@
+package com.yo.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the outcome of a bulk drone import: the number of imported and rejected rows, and why rows were rejected.
+ */
+public class DroneImportReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long imported;
+
+    private long rejected;
+
+    private boolean errorsTruncated;
+
+    private List<DroneImportErrorDTO> errors = new ArrayList<>();
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public List<DroneImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<DroneImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneImportReportDTO{" +
+            "imported=" + getImported() +
+            ", rejected=" + getRejected() +
+            ", errors=" + getErrors().size() +
+            "}";
+    }
+}
@@ -0,0 +1,80 @@
+package com.yo.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the outcome of loading medications onto a drone: the weight the drone now carries, and the version to
+ * send back with a later update of the drone.
+ */
+public class DroneLoadDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Long loadedWeight;
+
+    private Long version;
+
+    public DroneLoadDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public DroneLoadDTO(Long id, Long loadedWeight, Long version) {
+        this.id = id;
+        this.loadedWeight = loadedWeight;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLoadedWeight() {
+        return loadedWeight;
+    }
+
+    public void setLoadedWeight(Long loadedWeight) {
+        this.loadedWeight = loadedWeight;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DroneLoadDTO)) {
+            return false;
+        }
+        DroneLoadDTO droneLoadDTO = (DroneLoadDTO) o;
+        return Objects.equals(id, droneLoadDTO.id) && Objects.equals(version, droneLoadDTO.version);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, version);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneLoadDTO{" +
+            "id=" + getId() +
+            ", loadedWeight=" + getLoadedWeight() +
+            ", version=" + getVersion() +
+            "}";
+    }
+}
@@ -3,17 +3,28 @@ package com.yo.service.impl;
 import com.fasterxml.jackson.annotation.JsonCreator.Mode;
 import com.yo.domain.Drone;
 import com.yo.domain.Medication;
-import com.yo.domain.enumeration.Model;
 import com.yo.domain.enumeration.State;
 import com.yo.repository.DroneRepository;
+import com.yo.repository.DroneSummary;
+import com.yo.service.BatteryLevelCache;
+import com.yo.service.DroneRegistration;
 import com.yo.service.DroneService;
+import com.yo.service.DroneStateMachine;
+import com.yo.service.FleetStateIndex;
 import com.yo.service.MedicationService;
+import com.yo.service.RetryOnConflict;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,57 +35,98 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class DroneServiceImpl implements DroneService {
 
+    /**
+     * Number of drones read per round trip during an export, and loaded with their medications at once.
+     */
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final Logger log = LoggerFactory.getLogger(DroneServiceImpl.class);
 
     private final DroneRepository droneRepository;
 
     private final MedicationService medicationService;
 
-    public DroneServiceImpl(DroneRepository droneRepository,MedicationService medicationService) {
+    private final FleetStateIndex fleetStateIndex;
+
+    private final BatteryLevelCache batteryLevelCache;
+
+    private final DroneStateMachine droneStateMachine;
+
+    public DroneServiceImpl(
+        DroneRepository droneRepository,
+        MedicationService medicationService,
+        FleetStateIndex fleetStateIndex,
+        BatteryLevelCache batteryLevelCache,
+        DroneStateMachine droneStateMachine
+    ) {
         this.droneRepository = droneRepository;
         this.medicationService = medicationService;
+        this.fleetStateIndex = fleetStateIndex;
+        this.batteryLevelCache = batteryLevelCache;
+        this.droneStateMachine = droneStateMachine;
     }
 
     @Override
     public Drone save(Drone drone) {
         log.debug("Request to save Drone : {}", drone);
 
-        if(drone.getWeightLimit() > 400 && drone.getWeightLimit() <= 500)
-            drone.setModel(Model.Heavyweight);
-        else if(drone.getWeightLimit() > 300 && drone.getWeightLimit() <= 400)
-            drone.setModel(Model.Cruiserweight); 
-        else if(drone.getWeightLimit() > 200 && drone.getWeightLimit() <= 300)
-            drone.setModel(Model.Middleweight);
-        else 
-            drone.setModel(Model.Lightweight); 
-            
-        drone.setState(State.IDLE);    
-        return droneRepository.save(drone);
+        DroneRegistration.prepare(drone);
+        Drone result = droneRepository.save(drone);
+        fleetStateIndex.refresh(result);
+        batteryLevelCache.evict(result.getId());
+        return result;
     }
 
     @Override
+    @RetryOnConflict("drone.update")
     public Drone update(Drone drone) {
         log.debug("Request to update Drone : {}", drone);
-        return droneRepository.save(drone);
+        // the request is copied onto the stored drone, so that a retry starts again from the request
+        Drone existingDrone = droneRepository.findById(drone.getId()).orElseThrow();
+        checkVersion(drone, existingDrone);
+        existingDrone.setSerialNumber(drone.getSerialNumber());
+        existingDrone.setModel(drone.getModel());
+        existingDrone.setWeightLimit(drone.getWeightLimit());
+        existingDrone.setBatteryCapacity(drone.getBatteryCapacity());
+        // the state only moves along the state machine, from the state currently stored
+        droneStateMachine.transition(existingDrone, drone.getState());
+        Drone result = droneRepository.save(existingDrone);
+        fleetStateIndex.refresh(result);
+        batteryLevelCache.evict(result.getId());
+        return result;
     }
 
     @Override
     public Drone updateMedication(Long id, Medication medication) {
         log.debug("Request to update Drone : {}", medication);
-        Drone drone = droneRepository.findById(id).get();
+        // the load decision is answered by the fleet index and confirmed by a conditional update of the loaded weight,
+        // which does not conflict: the request body is saved as is, so an attempt could not be retried from it anyway
+        medication.setDrone(droneRepository.getReferenceById(id));
         medication = medicationService.save(medication);
-        drone = drone.addMedication(medication);
-        log.debug("RMeditation Loading : {}", medication, drone.getMedications().size());
-        return droneRepository.save(drone);
+        log.debug("Medication loaded : {}", medication);
+        // the medication already refers to the drone: adding it to the manifest would load all the others
+        return droneRepository.findById(id).orElseThrow();
     }
 
     @Override
+    public Drone loadMedications(Long id, List<Medication> medications) {
+        log.debug("Request to load {} Medications onto Drone : {}", medications.size(), id);
+        Drone reference = droneRepository.getReferenceById(id);
+        medications.forEach(medication -> medication.setDrone(reference));
+        // the combined weight is checked once, inserts are flushed together at commit and grouped by hibernate.jdbc.batch_size
+        medicationService.saveAll(medications);
+        return droneRepository.findById(id).orElseThrow();
+    }
+
+    @Override
+    @RetryOnConflict("drone.partialUpdate")
     public Optional<Drone> partialUpdate(Drone drone) {
         log.debug("Request to partially update Drone : {}", drone);
 
         return droneRepository
             .findById(drone.getId())
             .map(existingDrone -> {
+                checkVersion(drone, existingDrone);
                 if (drone.getSerialNumber() != null) {
                     existingDrone.setSerialNumber(drone.getSerialNumber());
                 }
@@ -87,13 +139,16 @@ public class DroneServiceImpl implements DroneService {
                 if (drone.getBatteryCapacity() != null) {
                     existingDrone.setBatteryCapacity(drone.getBatteryCapacity());
                 }
-                if (drone.getState() != null) {
-                    existingDrone.setState(drone.getState());
-                }
+                droneStateMachine.transition(existingDrone, drone.getState());
 
                 return existingDrone;
             })
-            .map(droneRepository::save);
+            .map(droneRepository::save)
+            .map(result -> {
+                fleetStateIndex.refresh(result);
+                batteryLevelCache.evict(result.getId());
+                return result;
+            });
     }
 
     @Override
@@ -103,16 +158,76 @@ public class DroneServiceImpl implements DroneService {
         return droneRepository.findAll(pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Drone> findAllWithEagerRelationships(Pageable pageable) {
+        return droneRepository.findAllWithEagerRelationships(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Drone> findAllAfter(Long id, int size, boolean eagerload) {
+        log.debug("Request to get {} Drones after : {}", size, id);
+        Pageable pageable = PageRequest.of(0, size);
+        if (eagerload) {
+            return droneRepository.findAllWithEagerRelationshipsByIdGreaterThan(id, pageable);
+        }
+        return droneRepository.findAllByIdGreaterThanOrderByIdAsc(id, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        return droneRepository.count();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<DroneSummary> findAllSummaries(Pageable pageable) {
+        log.debug("Request to get a page of Drone summaries");
+        return droneRepository.findAllSummariesBy(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllSummaries(Consumer<DroneSummary> consumer) {
+        log.debug("Request to stream all Drone summaries");
+        try (Stream<DroneSummary> summaries = droneRepository.streamAllSummariesBy()) {
+            summaries.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<Drone> consumer) {
+        log.debug("Request to export all Drones");
+        droneRepository.forEachWithEagerRelationships(EXPORT_CHUNK_SIZE, consumer);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Drone> findOne(Long id) {
         log.debug("Request to get Drone : {}", id);
-        return droneRepository.findById(id);
+        return droneRepository.findOneWithEagerRelationships(id);
     }
 
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Drone : {}", id);
         droneRepository.deleteById(id);
+        fleetStateIndex.evict(id);
+        batteryLevelCache.evict(id);
+    }
+
+    /**
+     * A client sending the version it read expects the drone unchanged since: a later version is a conflict to report,
+     * not to retry. Without a version, the update applies to the current one.
+     */
+    private static void checkVersion(Drone drone, Drone existingDrone) {
+        if (drone.getVersion() != null && !drone.getVersion().equals(existingDrone.getVersion())) {
+            throw new ConcurrencyFailureException(
+                "Drone " + drone.getId() + " is at version " + existingDrone.getVersion() + ", not " + drone.getVersion()
+            );
+        }
     }
 }
@@ -1,13 +1,21 @@
 package com.yo.service.impl;
 
 import com.yo.domain.Medication;
+import com.yo.repository.DroneRepository;
 import com.yo.repository.MedicationRepository;
+import com.yo.service.DroneLoadException;
+import com.yo.service.FleetStateIndex;
 import com.yo.service.MedicationService;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,20 +30,57 @@ public class MedicationServiceImpl implements MedicationService {
 
     private final MedicationRepository medicationRepository;
 
-    public MedicationServiceImpl(MedicationRepository medicationRepository) {
+    private final DroneRepository droneRepository;
+
+    private final FleetStateIndex fleetStateIndex;
+
+    public MedicationServiceImpl(
+        MedicationRepository medicationRepository,
+        DroneRepository droneRepository,
+        FleetStateIndex fleetStateIndex
+    ) {
         this.medicationRepository = medicationRepository;
+        this.droneRepository = droneRepository;
+        this.fleetStateIndex = fleetStateIndex;
     }
 
     @Override
     public Medication save(Medication medication) {
         log.debug("Request to save Medication : {}", medication);
+        if (medication.getId() != null) {
+            // the medication may already weigh on a drone: only update moves its weight from one drone to the other
+            return update(medication);
+        }
+        if (medication.getDrone() != null) {
+            loadOnto(droneIdOf(medication), FleetStateIndex.weightOf(medication));
+        }
         return medicationRepository.save(medication);
     }
 
+    @Override
+    public List<Medication> saveAll(List<Medication> medications) {
+        log.debug("Request to save {} Medications", medications.size());
+        medications
+            .stream()
+            .filter(medication -> medication.getDrone() != null)
+            .collect(Collectors.groupingBy(MedicationServiceImpl::droneIdOf, Collectors.summingLong(FleetStateIndex::weightOf)))
+            .forEach(this::loadOnto);
+        return medicationRepository.saveAll(medications);
+    }
+
     @Override
     public Medication update(Medication medication) {
         log.debug("Request to update Medication : {}", medication);
-        return medicationRepository.save(medication);
+        Optional<Medication> existingMedication = medicationRepository.findById(medication.getId());
+        Long previousDroneId = existingMedication.map(MedicationServiceImpl::droneIdOf).orElse(null);
+        long previousWeight = existingMedication.map(FleetStateIndex::weightOf).orElse(0L);
+        if (medication.getVersion() == null) {
+            // without the version it read, the client updates the current one
+            existingMedication.map(Medication::getVersion).ifPresent(medication::setVersion);
+        }
+        Medication result = medicationRepository.save(medication);
+        moveLoadedWeight(previousDroneId, previousWeight, droneIdOf(result), FleetStateIndex.weightOf(result));
+        return result;
     }
 
     @Override
@@ -49,7 +94,10 @@ public class MedicationServiceImpl implements MedicationService {
                     existingMedication.setName(medication.getName());
                 }
                 if (medication.getWeght() != null) {
+                    long previousWeight = FleetStateIndex.weightOf(existingMedication);
                     existingMedication.setWeght(medication.getWeght());
+                    Long droneId = droneIdOf(existingMedication);
+                    moveLoadedWeight(droneId, previousWeight, droneId, FleetStateIndex.weightOf(existingMedication));
                 }
                 if (medication.getCode() != null) {
                     existingMedication.setCode(medication.getCode());
@@ -70,6 +118,19 @@ public class MedicationServiceImpl implements MedicationService {
         return medicationRepository.findAll(pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Medication> findAllAfter(Long id, int size) {
+        log.debug("Request to get {} Medications after : {}", size, id);
+        return medicationRepository.findAllByIdGreaterThanOrderByIdAsc(id, PageRequest.of(0, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        return medicationRepository.count();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Medication> findOne(Long id) {
@@ -80,6 +141,49 @@ public class MedicationServiceImpl implements MedicationService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Medication : {}", id);
+        medicationRepository
+            .findById(id)
+            .ifPresent(medication -> moveLoadedWeight(droneIdOf(medication), FleetStateIndex.weightOf(medication), null, 0L));
         medicationRepository.deleteById(id);
     }
+
+    /**
+     * Keep the {@code loadedWeight} aggregate of the drones in line when a medication changes drone or weight.
+     * Index entries of the affected drones are rebuilt on next access.
+     */
+    private void moveLoadedWeight(Long fromDroneId, long fromWeight, Long toDroneId, long toWeight) {
+        if (Objects.equals(fromDroneId, toDroneId) && fromWeight == toWeight) {
+            return;
+        }
+        if (fromDroneId != null) {
+            droneRepository.removeLoadedWeight(fromDroneId, fromWeight);
+            fleetStateIndex.evict(fromDroneId);
+        }
+        if (toDroneId != null) {
+            fleetStateIndex.evict(toDroneId);
+            addLoadedWeight(toDroneId, toWeight);
+        }
+    }
+
+    /**
+     * Load new medications onto a drone: the index answers first, then the conditional update confirms.
+     */
+    private void loadOnto(Long droneId, long weight) {
+        fleetStateIndex.reserve(droneId, weight);
+        addLoadedWeight(droneId, weight);
+    }
+
+    /**
+     * The conditional update is authoritative: the index may be behind writes made by other instances.
+     */
+    private void addLoadedWeight(Long droneId, long weight) {
+        if (droneRepository.addLoadedWeight(droneId, weight) == 0) {
+            fleetStateIndex.resync(droneId);
+            throw new DroneLoadException("Drone weight limit exceeded", "weightlimitexceeded");
+        }
+    }
+
+    private static Long droneIdOf(Medication medication) {
+        return medication.getDrone() == null ? null : medication.getDrone().getId();
+    }
 }
@@ -0,0 +1,150 @@
+package com.yo.web.rest;
+
+import com.yo.domain.Drone;
+import com.yo.domain.Medication;
+import com.yo.repository.DroneRepository;
+import com.yo.service.DispatchCommandService;
+import com.yo.service.DroneLockManager;
+import com.yo.service.DroneService;
+import com.yo.service.dto.DispatchCommandDTO;
+import com.yo.web.rest.errors.BadRequestAlertException;
+import java.net.URI;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for asynchronous dispatch commands.
+ * <p>
+ * A command is accepted with an {@code Idempotency-Key} header chosen by the client, and runs in the background. Sending
+ * the same command again with the same key returns the command already accepted instead of running it twice; its
+ * outcome is polled from {@code GET /dispatch/commands/:commandId}.
+ */
+@RestController
+@RequestMapping("/api")
+public class DispatchCommandResource {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(DispatchCommandResource.class);
+
+    private static final String ENTITY_NAME = "droneDispatchCommand";
+
+    private final DispatchCommandService dispatchCommandService;
+
+    private final DroneService droneService;
+
+    private final DroneRepository droneRepository;
+
+    private final DroneLockManager droneLockManager;
+
+    public DispatchCommandResource(
+        DispatchCommandService dispatchCommandService,
+        DroneService droneService,
+        DroneRepository droneRepository,
+        DroneLockManager droneLockManager
+    ) {
+        this.dispatchCommandService = dispatchCommandService;
+        this.droneService = droneService;
+        this.droneRepository = droneRepository;
+        this.droneLockManager = droneLockManager;
+    }
+
+    /**
+     * {@code POST  /dispatch/commands/load/:id} : Load a medication onto an existing drone, in the background.
+     *
+     * @param idempotencyKey the key identifying the command among the ones of the current user.
+     * @param id the id of the drone to load.
+     * @param medication the medication to load.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the command,
+     * or with status {@code 400 (Bad Request)} if the key or the medication is not valid, or the drone does not exist,
+     * or with status {@code 422 (Unprocessable Entity)} if the key was used for another command,
+     * or with status {@code 503 (Service Unavailable)} if too many commands are in progress.
+     */
+    @PostMapping("/dispatch/commands/load/{id}")
+    public ResponseEntity<DispatchCommandDTO> loadDrone(
+        @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey,
+        @PathVariable(value = "id", required = true) final Long id,
+        @RequestBody Medication medication
+    ) {
+        log.debug("REST request to submit a load command : {}, {}, {}", idempotencyKey, id, medication);
+        checkIdempotencyKey(idempotencyKey);
+        if (medication.getId() != null) {
+            throw new BadRequestAlertException("A new medication cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        if (!droneRepository.existsById(id)) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        DispatchCommandDTO command = dispatchCommandService.submit(
+            idempotencyKey,
+            DispatchCommandDTO.Type.LOAD,
+            id,
+            medication,
+            () -> droneLockManager.withLock(id, () -> droneService.updateMedication(id, medication))
+        );
+        return accepted(command);
+    }
+
+    /**
+     * {@code POST  /dispatch/commands/register} : Register a new drone, in the background.
+     *
+     * @param idempotencyKey the key identifying the command among the ones of the current user.
+     * @param drone the drone to register.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the command,
+     * or with status {@code 400 (Bad Request)} if the key is not valid or the drone has already an ID,
+     * or with status {@code 422 (Unprocessable Entity)} if the key was used for another command,
+     * or with status {@code 503 (Service Unavailable)} if too many commands are in progress.
+     */
+    @PostMapping("/dispatch/commands/register")
+    public ResponseEntity<DispatchCommandDTO> registerDrone(
+        @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey,
+        @RequestBody Drone drone
+    ) {
+        log.debug("REST request to submit a register command : {}, {}", idempotencyKey, drone);
+        checkIdempotencyKey(idempotencyKey);
+        if (drone.getId() != null) {
+            throw new BadRequestAlertException("A new drone cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        DispatchCommandDTO command = dispatchCommandService.submit(
+            idempotencyKey,
+            DispatchCommandDTO.Type.REGISTER,
+            null,
+            drone,
+            () -> droneService.save(drone)
+        );
+        return accepted(command);
+    }
+
+    /**
+     * {@code GET  /dispatch/commands/:commandId} : get a command of the current user.
+     *
+     * @param commandId the id of the command.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the command, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/dispatch/commands/{commandId}")
+    public ResponseEntity<DispatchCommandDTO> getCommand(@PathVariable UUID commandId) {
+        log.debug("REST request to get a Dispatch command : {}", commandId);
+        Optional<DispatchCommandDTO> command = dispatchCommandService.findOne(commandId);
+        return ResponseUtil.wrapOrNotFound(command);
+    }
+
+    private static void checkIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BadRequestAlertException(
+                "The " + IDEMPOTENCY_KEY_HEADER + " header must hold 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters",
+                ENTITY_NAME,
+                "idempotencykeyinvalid"
+            );
+        }
+    }
+
+    private static ResponseEntity<DispatchCommandDTO> accepted(DispatchCommandDTO command) {
+        return ResponseEntity.accepted().location(URI.create("/api/dispatch/commands/" + command.getId())).body(command);
+    }
+}
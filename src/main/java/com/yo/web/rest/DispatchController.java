@@ -2,11 +2,31 @@ package com.yo.web.rest;
 
 import com.yo.domain.Drone;
 import com.yo.domain.Medication;
+import com.yo.domain.enumeration.Model;
+import com.yo.domain.enumeration.State;
 import com.yo.repository.DroneRepository;
+import com.yo.service.BatteryHistoryService;
+import com.yo.service.BatteryLevelCache;
+import com.yo.service.DroneImportService;
+import com.yo.service.DroneLockManager;
 import com.yo.service.DroneService;
+import com.yo.service.DroneStateMachine;
+import com.yo.service.FleetStateIndex;
+import com.yo.service.dto.AvailableDroneDTO;
+import com.yo.service.dto.BatteryHistoryDTO;
+import com.yo.service.dto.BatteryLevelDTO;
+import com.yo.service.dto.DroneImportReportDTO;
+import com.yo.service.dto.DroneLoadDTO;
 import com.yo.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -17,6 +37,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -35,6 +56,11 @@ public class DispatchController {
 
     private static final String ENTITY_NAME = "droneDrone";
 
+    /**
+     * Maximum number of drones whose battery levels are requested at once.
+     */
+    static final int MAX_BATTERY_LEVEL_IDS = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +68,36 @@ public class DispatchController {
 
     private final DroneRepository droneRepository;
 
-    public DispatchController(DroneService droneService, DroneRepository droneRepository) {
+    private final FleetStateIndex fleetStateIndex;
+
+    private final BatteryLevelCache batteryLevelCache;
+
+    private final BatteryHistoryService batteryHistoryService;
+
+    private final DroneImportService droneImportService;
+
+    private final DroneStateMachine droneStateMachine;
+
+    private final DroneLockManager droneLockManager;
+
+    public DispatchController(
+        DroneService droneService,
+        DroneRepository droneRepository,
+        FleetStateIndex fleetStateIndex,
+        BatteryLevelCache batteryLevelCache,
+        BatteryHistoryService batteryHistoryService,
+        DroneImportService droneImportService,
+        DroneStateMachine droneStateMachine,
+        DroneLockManager droneLockManager
+    ) {
         this.droneService = droneService;
         this.droneRepository = droneRepository;
+        this.fleetStateIndex = fleetStateIndex;
+        this.batteryLevelCache = batteryLevelCache;
+        this.batteryHistoryService = batteryHistoryService;
+        this.droneImportService = droneImportService;
+        this.droneStateMachine = droneStateMachine;
+        this.droneLockManager = droneLockManager;
     }
 
     /**
@@ -67,29 +120,210 @@ public class DispatchController {
             .body(result);
     }
 
+    /**
+     * {@code POST  /drones/register/bulk} : Register drones in bulk from a CSV or NDJSON stream.
+     * <p>
+     * CSV rows follow {@code liquibase/fake-data/drone.csv}: a header naming at least the {@code serial_number} and
+     * {@code weight_limit} columns, then one drone per line. Ids, models and states in the stream are ignored, drones
+     * being classified and registered idle as by {@code POST /drones/register}.
+     *
+     * @param contentType the format of the stream, {@code text/csv} or {@code application/x-ndjson}.
+     * @param body the stream of drones.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of imported drones and
+     * the rejected rows.
+     * @throws IOException if the stream cannot be read.
+     */
+    @PostMapping(value = "/drones/register/bulk", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<DroneImportReportDTO> importDrones(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body)
+        throws IOException {
+        log.debug("REST request to import Drones : {}", contentType);
+        DroneImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+            ? DroneImportService.Format.NDJSON
+            : DroneImportService.Format.CSV;
+        Reader reader = new InputStreamReader(body, Optional.ofNullable(contentType.getCharset()).orElse(StandardCharsets.UTF_8));
+        return ResponseEntity.ok(droneImportService.importDrones(reader, format));
+    }
+
     /**
      * {@code PUT  /drones/:id} : Updates an existing drone.
      *
      * @param id the id of the drone to save.
      * @param drone the drone to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated drone,
-     * or with status {@code 400 (Bad Request)} if the drone is not valid,
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the id, loaded weight and version of the drone,
+     * or with status {@code 400 (Bad Request)} if the medication is not valid, has already an ID or does not fit on the drone,
+     * or with status {@code 409 (Conflict)} if the drone stays busy with other loads,
      * or with status {@code 500 (Internal Server Error)} if the drone couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/drones/load/{id}")
-    public ResponseEntity<Drone> updateDrone(@PathVariable(value = "id", required = true) final Long id, @RequestBody Medication medication)
-        throws URISyntaxException {
+    public ResponseEntity<DroneLoadDTO> updateDrone(
+        @PathVariable(value = "id", required = true) final Long id,
+        @RequestBody Medication medication
+    ) throws URISyntaxException {
         log.debug("REST request to update Drone with medication : {}, {}", id, medication);
+        if (medication.getId() != null) {
+            throw new BadRequestAlertException("A new medication cannot already have an ID", ENTITY_NAME, "idexists");
+        }
 
-
-        Drone result = droneService.updateMedication(id,medication);
+        // loads of the same drone run one after the other, each in its own transaction
+        Drone result = droneLockManager.withLock(id, () -> droneService.updateMedication(id, medication));
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, medication.getId().toString()))
+            .body(loadOf(result));
+    }
+
+    /**
+     * {@code POST  /drones/load/:id/batch} : Loads an existing drone with several medications at once.
+     *
+     * @param id the id of the drone to load.
+     * @param medications the medications to load.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the id, loaded weight and version of the drone,
+     * or with status {@code 400 (Bad Request)} if the medications are not valid or do not fit on the drone,
+     * or with status {@code 409 (Conflict)} if the drone stays busy with other loads.
+     */
+    @PostMapping("/drones/load/{id}/batch")
+    public ResponseEntity<DroneLoadDTO> loadDroneBatch(
+        @PathVariable(value = "id", required = true) final Long id,
+        @RequestBody List<Medication> medications
+    ) {
+        log.debug("REST request to load Drone with medications : {}, {}", id, medications.size());
+        if (medications.isEmpty()) {
+            throw new BadRequestAlertException("At least one medication is required", ENTITY_NAME, "medicationsempty");
+        }
+        if (medications.stream().anyMatch(medication -> medication.getId() != null)) {
+            throw new BadRequestAlertException("A new medication cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+
+        Drone result = droneLockManager.withLock(id, () -> droneService.loadMedications(id, medications));
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
+            .body(loadOf(result));
+    }
+
+    /**
+     * {@code PUT  /drones/:id/state} : Move a drone from the expected state to the target state.
+     * <p>
+     * The drone only moves if it is still in the expected state, so that of several dispatchers claiming the same drone,
+     * exactly one succeeds and the others get a {@code 409 (Conflict)}.
+     *
+     * @param id the id of the drone.
+     * @param from the state the drone is expected to be in.
+     * @param to the target state.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the drone in its new state,
+     * or with status {@code 400 (Bad Request)} if the transition is not allowed,
+     * or with status {@code 409 (Conflict)} if the drone is not in the expected state anymore.
+     */
+    @PutMapping("/drones/{id}/state")
+    public ResponseEntity<Drone> transitionDrone(
+        @PathVariable(value = "id", required = true) final Long id,
+        @RequestParam("from") State from,
+        @RequestParam("to") State to
+    ) {
+        log.debug("REST request to move Drone {} from {} to {}", id, from, to);
+        Drone result = droneStateMachine.transition(id, from, to);
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .body(result);
     }
 
+    /**
+     * {@code GET  /drones/available} : get the drones able to take a load, answered from the in-memory fleet index.
+     *
+     * @param weight the weight the drones must still be able to carry.
+     * @param minBattery the minimum battery level, in percent.
+     * @param state the state of the drones.
+     * @param model the model of the drones, any model if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of available drones in body.
+     */
+    @GetMapping("/drones/available")
+    public ResponseEntity<List<AvailableDroneDTO>> getAvailableDrones(
+        @RequestParam(value = "weight", defaultValue = "0") long weight,
+        @RequestParam(value = "minBattery", defaultValue = "25") int minBattery,
+        @RequestParam(value = "state", defaultValue = "IDLE") State state,
+        @RequestParam(value = "model", required = false) Model model
+    ) {
+        log.debug("REST request to get available Drones : {}, {}, {}, {}", weight, minBattery, state, model);
+        return ResponseEntity.ok().body(fleetStateIndex.findAvailable(state, minBattery, weight, model));
+    }
+
+    /**
+     * {@code GET  /drones/battery} : get the battery levels of several drones, or of the whole fleet.
+     *
+     * @param ids the ids of the drones, the whole fleet if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of battery levels in body,
+     * or with status {@code 400 (Bad Request)} if more than {@value #MAX_BATTERY_LEVEL_IDS} ids are given.
+     */
+    @GetMapping("/drones/battery")
+    public ResponseEntity<List<BatteryLevelDTO>> getBatteryLevels(@RequestParam(value = "ids", required = false) List<Long> ids) {
+        log.debug("REST request to get battery levels of Drones : {}", ids);
+        if (ids != null && ids.size() > MAX_BATTERY_LEVEL_IDS) {
+            throw new BadRequestAlertException("At most " + MAX_BATTERY_LEVEL_IDS + " drones can be requested", ENTITY_NAME, "toomanyids");
+        }
+        return ResponseEntity.ok().body(ids == null ? batteryLevelCache.getAll() : batteryLevelCache.getAll(ids));
+    }
+
+    /**
+     * {@code GET  /drones/:id/battery} : get the battery level of the "id" drone.
+     *
+     * @param id the id of the drone.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the battery level, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/drones/{id}/battery")
+    public ResponseEntity<BatteryLevelDTO> getBatteryLevel(@PathVariable Long id) {
+        log.debug("REST request to get battery level of Drone : {}", id);
+        return ResponseUtil.wrapOrNotFound(batteryLevelCache.get(id));
+    }
+
+    /**
+     * {@code GET  /drones/battery/history} : get the battery history of the whole fleet.
+     *
+     * @param from the start of the window, one day before {@code to} if absent.
+     * @param to the end of the window, now if absent.
+     * @param maxPoints the maximum number of points, capped at the configured maximum, which is also used if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the battery history,
+     * or with status {@code 400 (Bad Request)} if the window is not valid.
+     */
+    @GetMapping("/drones/battery/history")
+    public ResponseEntity<BatteryHistoryDTO> getFleetBatteryHistory(
+        @RequestParam(value = "from", required = false) Instant from,
+        @RequestParam(value = "to", required = false) Instant to,
+        @RequestParam(value = "maxPoints", required = false) Integer maxPoints
+    ) {
+        return getBatteryHistory(null, from, to, maxPoints);
+    }
+
+    /**
+     * {@code GET  /drones/:id/battery/history} : get the battery history of the "id" drone.
+     *
+     * @param id the id of the drone.
+     * @param from the start of the window, one day before {@code to} if absent.
+     * @param to the end of the window, now if absent.
+     * @param maxPoints the maximum number of points, capped at the configured maximum, which is also used if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the battery history,
+     * or with status {@code 400 (Bad Request)} if the window is not valid.
+     */
+    @GetMapping("/drones/{id}/battery/history")
+    public ResponseEntity<BatteryHistoryDTO> getBatteryHistory(
+        @PathVariable Long id,
+        @RequestParam(value = "from", required = false) Instant from,
+        @RequestParam(value = "to", required = false) Instant to,
+        @RequestParam(value = "maxPoints", required = false) Integer maxPoints
+    ) {
+        log.debug("REST request to get battery history of Drone : {}, {}, {}", id, from, to);
+        Instant end = to == null ? Instant.now() : to;
+        Instant start = from == null ? end.minus(Duration.ofDays(1)) : from;
+        if (!start.isBefore(end)) {
+            throw new BadRequestAlertException("The start of the window must be before its end", ENTITY_NAME, "windowinvalid");
+        }
+        if (maxPoints != null && maxPoints < 1) {
+            throw new BadRequestAlertException("At least one point must be requested", ENTITY_NAME, "maxpointsinvalid");
+        }
+        return ResponseEntity.ok().body(batteryHistoryService.findHistory(id, start, end, maxPoints));
+    }
+
     /**
      * {@code GET  /drones/:id} : get the "id" drone.
      *
@@ -102,5 +336,9 @@ public class DispatchController {
         Optional<Drone> drone = droneService.findOne(id);
         return ResponseUtil.wrapOrNotFound(drone);
     }
+
+    private static DroneLoadDTO loadOf(Drone drone) {
+        return new DroneLoadDTO(drone.getId(), drone.getLoadedWeight(), drone.getVersion());
+    }
     
 }
@@ -1,9 +1,17 @@
 package com.yo.web.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.yo.domain.Drone;
 import com.yo.repository.DroneRepository;
+import com.yo.repository.DroneSummary;
 import com.yo.service.DroneService;
 import com.yo.web.rest.errors.BadRequestAlertException;
+import com.yo.web.rest.util.KeysetPaginationUtil;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -14,10 +22,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -41,9 +52,12 @@ public class DroneResource {
 
     private final DroneRepository droneRepository;
 
-    public DroneResource(DroneService droneService, DroneRepository droneRepository) {
+    private final ObjectMapper objectMapper;
+
+    public DroneResource(DroneService droneService, DroneRepository droneRepository, ObjectMapper objectMapper) {
         this.droneService = droneService;
         this.droneRepository = droneRepository;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -136,16 +150,146 @@ public class DroneResource {
      * {@code GET  /drones} : get all the drones.
      *
      * @param pageable the pagination information.
+     * @param eagerload flag to eager load the medications of the drones.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of drones in body.
      */
     @GetMapping("/drones")
-    public ResponseEntity<List<Drone>> getAllDrones(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<Drone>> getAllDrones(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false, defaultValue = "false") boolean eagerload
+    ) {
         log.debug("REST request to get a page of Drones");
-        Page<Drone> page = droneService.findAll(pageable);
+        Page<Drone> page;
+        if (eagerload) {
+            page = droneService.findAllWithEagerRelationships(pageable);
+        } else {
+            page = droneService.findAll(pageable);
+        }
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /drones?cursor=} : get the drones following a cursor, in id order.
+     * <p>
+     * Each page is read from the id index, so deep pages cost no more than the first one. The next page is
+     * advertised in the {@code X-Next-Cursor} and {@code Link} headers; the total count is only computed on demand.
+     *
+     * @param cursor the cursor returned with the previous page, empty for the first page.
+     * @param size the maximum number of drones.
+     * @param withCount whether to return the total count in the {@code X-Total-Count} header.
+     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of drones in body.
+     */
+    @GetMapping(value = "/drones", params = "cursor")
+    public ResponseEntity<List<Drone>> getAllDronesAfter(
+        @RequestParam String cursor,
+        @RequestParam(required = false, defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size,
+        @RequestParam(required = false, defaultValue = "false") boolean withCount,
+        @RequestParam(required = false, defaultValue = "false") boolean eagerload
+    ) {
+        log.debug("REST request to get the Drones after cursor : {}", cursor);
+        long afterId = KeysetPaginationUtil.decodeCursor(cursor, ENTITY_NAME);
+        Slice<Drone> slice = droneService.findAllAfter(afterId, KeysetPaginationUtil.pageSize(size, ENTITY_NAME), eagerload);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            Drone::getId,
+            withCount ? droneService.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /drones/summaries} : get a page of drone summaries, read without loading the entities.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of drone summaries in body.
+     */
+    @GetMapping("/drones/summaries")
+    public ResponseEntity<List<DroneSummary>> getAllDroneSummaries(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of Drone summaries");
+        Page<DroneSummary> page = droneService.findAllSummaries(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /drones/summaries/stream} : stream the summaries of all the drones, in id order.
+     * <p>
+     * Summaries are written to the response as they are read from the database, so memory use does not depend on the
+     * size of the fleet.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the JSON array of drone summaries in body.
+     */
+    @GetMapping(value = "/drones/summaries/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDroneSummaries() {
+        log.debug("REST request to stream all Drone summaries");
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                droneService.streamAllSummaries(summary -> writeSummary(generator, summary));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private static void writeLine(ObjectWriter writer, JsonGenerator generator, Drone drone) {
+        try {
+            writer.writeValue(generator, drone);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeSummary(JsonGenerator generator, DroneSummary summary) {
+        try {
+            generator.writeStartObject();
+            writeNumberField(generator, "id", summary.getId());
+            generator.writeStringField("serialNumber", summary.getSerialNumber());
+            generator.writeStringField("model", summary.getModel() == null ? null : summary.getModel().name());
+            writeNumberField(generator, "weightLimit", summary.getWeightLimit());
+            writeNumberField(generator, "batteryCapacity", summary.getBatteryCapacity());
+            generator.writeStringField("state", summary.getState() == null ? null : summary.getState().name());
+            writeNumberField(generator, "loadedWeight", summary.getLoadedWeight());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNumberField(JsonGenerator generator, String name, Number value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    /**
+     * {@code GET  /drones/export} : export all the drones with their medications, as newline-delimited JSON.
+     * <p>
+     * Drones are read from a forward-only cursor and written one per line as they are loaded, so memory use does not
+     * depend on the size of the fleet.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and one drone per line in body.
+     */
+    @GetMapping(value = "/drones/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportDrones() {
+        log.debug("REST request to export all Drones");
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT, SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                droneService.exportAll(drone -> writeLine(writer, generator, drone));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * {@code GET  /drones/:id} : get the "id" drone.
      *
@@ -0,0 +1,219 @@
+package com.yo.web.rest;
+
+import com.yo.domain.Medication;
+import com.yo.repository.MedicationRepository;
+import com.yo.service.MedicationImageStore;
+import com.yo.service.MedicationService;
+import com.yo.web.rest.errors.BadRequestAlertException;
+import io.undertow.servlet.spec.ServletOutputStreamImpl;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for managing the image of a {@link com.yo.domain.Medication}.
+ * <p>
+ * The image of a medication holds the SHA-256 hash of the image in the {@link MedicationImageStore}, which is also its
+ * strong ETag. Images are written straight from the file to the connection, with {@code sendfile} when the container
+ * allows it.
+ * <p>
+ * Only the image types of the store are accepted, and an image is only sent as one of them: a file of any other type,
+ * stored before the types were checked, is sent as an attachment, so that a browser never renders it in the page of the
+ * application.
+ */
+@RestController
+@RequestMapping("/api")
+public class MedicationImageResource {
+
+    private final Logger log = LoggerFactory.getLogger(MedicationImageResource.class);
+
+    private static final String ENTITY_NAME = "droneMedication";
+
+    private static final String BYTES_RANGE_UNIT = "bytes";
+
+    private static final String CONTENT_TYPE_OPTIONS_HEADER = "X-Content-Type-Options";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final MedicationService medicationService;
+
+    private final MedicationRepository medicationRepository;
+
+    private final MedicationImageStore medicationImageStore;
+
+    public MedicationImageResource(
+        MedicationService medicationService,
+        MedicationRepository medicationRepository,
+        MedicationImageStore medicationImageStore
+    ) {
+        this.medicationService = medicationService;
+        this.medicationRepository = medicationRepository;
+        this.medicationImageStore = medicationImageStore;
+    }
+
+    /**
+     * {@code PUT  /medications/:id/image} : Upload the image of an existing medication.
+     *
+     * @param id the id of the medication.
+     * @param file the image.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated medication,
+     * or with status {@code 400 (Bad Request)} if the medication is not found, or the image is not a PNG, JPEG, GIF or
+     * WebP image.
+     * @throws IOException if the image could not be stored.
+     */
+    @PutMapping(value = "/medications/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Medication> uploadMedicationImage(@PathVariable Long id, @RequestParam("file") MultipartFile file)
+        throws IOException {
+        log.debug("REST request to upload the image of Medication : {}, {} bytes", id, file.getSize());
+        if (!medicationRepository.existsById(id)) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+
+        String hash;
+        try (InputStream image = new BufferedInputStream(file.getInputStream())) {
+            if (medicationImageStore.typeOf(image).isEmpty()) {
+                throw new BadRequestAlertException("Unsupported image type", ENTITY_NAME, "imagetypeinvalid");
+            }
+            hash = medicationImageStore.store(image);
+        }
+        Optional<Medication> result = medicationService.partialUpdate(new Medication().id(id).image(hash));
+
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()));
+    }
+
+    /**
+     * {@code GET  /medications/:id/image} : get the image of the "id" medication, or the requested range of it.
+     *
+     * @param id the id of the medication.
+     * @param request the request, with its conditional and range headers.
+     * @param response the response the image is written to, with status {@code 200 (OK)},
+     * {@code 206 (Partial Content)} for a range, {@code 304 (Not Modified)} if the client has the image,
+     * {@code 416 (Range Not Satisfiable)} for a range outside of the image,
+     * or {@code 404 (Not Found)} if the medication or its image is not found.
+     * @throws IOException if the image could not be written.
+     */
+    @GetMapping("/medications/{id}/image")
+    public void getMedicationImage(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("REST request to get the image of Medication : {}", id);
+        String hash = medicationService.findOne(id).map(Medication::getImage).orElse(null);
+        Path file = medicationImageStore.find(hash).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        String etag = "\"" + hash + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES_RANGE_UNIT);
+        response.setHeader(CONTENT_TYPE_OPTIONS_HEADER, "nosniff");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        Optional<MediaType> type = medicationImageStore.typeOf(file);
+        try (FileChannel channel = FileChannel.open(file)) {
+            long size = channel.size();
+            long start = 0;
+            long end = size - 1;
+            HttpRange range = requestedRange(request, etag);
+            if (range != null) {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+                if (start >= size || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES_RANGE_UNIT + " */" + size);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES_RANGE_UNIT + " " + start + "-" + end + "/" + size);
+            }
+            if (type.isPresent()) {
+                response.setContentType(type.get().toString());
+            } else {
+                response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().build().toString());
+            }
+            response.setContentLengthLong(end - start + 1);
+            if (!HttpMethod.HEAD.matches(request.getMethod())) {
+                transfer(channel, start, end - start + 1, response);
+            }
+        }
+    }
+
+    /**
+     * Get the single range requested, unless the image changed since the client got the other parts of it. Several
+     * ranges, or a range that cannot be parsed, are ignored and the whole image is returned.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String etag) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Write a part of a file to the response without copying it through the heap: the output stream of Undertow sends
+     * the rest of a file with {@code sendfile}, other parts and containers go through {@link FileChannel#transferTo}.
+     */
+    private static void transfer(FileChannel channel, long position, long count, HttpServletResponse response) throws IOException {
+        ServletResponse containerResponse = response;
+        while (containerResponse instanceof ServletResponseWrapper) {
+            containerResponse = ((ServletResponseWrapper) containerResponse).getResponse();
+        }
+        if (containerResponse != response) {
+            // commits the headers through the wrappers, which add theirs on commit, before writing past them
+            response.flushBuffer();
+        }
+        OutputStream out = containerResponse.getOutputStream();
+        if (out instanceof ServletOutputStreamImpl && position + count == channel.size()) {
+            channel.position(position);
+            ((ServletOutputStreamImpl) out).transferFrom(channel);
+            return;
+        }
+        WritableByteChannel target = Channels.newChannel(out);
+        while (count > 0) {
+            long transferred = channel.transferTo(position, count, target);
+            if (transferred == 0) {
+                throw new EOFException("Image truncated at " + position + " bytes");
+            }
+            position += transferred;
+            count -= transferred;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.yo.domain.Medication;
 import com.yo.repository.MedicationRepository;
 import com.yo.service.MedicationService;
 import com.yo.web.rest.errors.BadRequestAlertException;
+import com.yo.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -150,6 +152,32 @@ public class MedicationResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /medications?cursor=} : get the medications following a cursor, in id order.
+     *
+     * @param cursor the cursor returned with the previous page, empty for the first page.
+     * @param size the maximum number of medications.
+     * @param withCount whether to return the total count in the {@code X-Total-Count} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of medications in body.
+     */
+    @GetMapping(value = "/medications", params = "cursor")
+    public ResponseEntity<List<Medication>> getAllMedicationsAfter(
+        @RequestParam String cursor,
+        @RequestParam(required = false, defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size,
+        @RequestParam(required = false, defaultValue = "false") boolean withCount
+    ) {
+        log.debug("REST request to get the Medications after cursor : {}", cursor);
+        long afterId = KeysetPaginationUtil.decodeCursor(cursor, ENTITY_NAME);
+        Slice<Medication> slice = medicationService.findAllAfter(afterId, KeysetPaginationUtil.pageSize(size, ENTITY_NAME));
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            Medication::getId,
+            withCount ? medicationService.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /medications/:id} : get the "id" medication.
      *
@@ -1,10 +1,14 @@
 package com.yo.web.rest.errors;
 
+import com.yo.service.DroneLoadException;
+import com.yo.service.DroneStateException;
+import com.yo.service.IdempotencyKeyReusedException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -43,6 +47,7 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
     private static final String MESSAGE_KEY = "message";
     private static final String PATH_KEY = "path";
     private static final String VIOLATIONS_KEY = "violations";
+    private static final String DRONE_ENTITY_NAME = "droneDrone";
 
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
@@ -124,6 +129,47 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         );
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleDroneLoadException(DroneLoadException ex, NativeWebRequest request) {
+        return handleBadRequestAlertException(new BadRequestAlertException(ex.getMessage(), DRONE_ENTITY_NAME, ex.getErrorKey()), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleDroneStateException(DroneStateException ex, NativeWebRequest request) {
+        if (ex.isConflict()) {
+            Problem problem = Problem
+                .builder()
+                .withStatus(Status.CONFLICT)
+                .withDetail(ex.getMessage())
+                .with(MESSAGE_KEY, "error." + ex.getErrorKey())
+                .build();
+            return create(ex, problem, request);
+        }
+        return handleBadRequestAlertException(new BadRequestAlertException(ex.getMessage(), DRONE_ENTITY_NAME, ex.getErrorKey()), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.UNPROCESSABLE_ENTITY)
+            .withDetail(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_IDEMPOTENCY_KEY_REUSED)
+            .build();
+        return create(ex, problem, request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleRejectedExecutionException(RejectedExecutionException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .withDetail(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_BUSY)
+            .build();
+        return create(ex, problem, request);
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleConcurrencyFailure(ConcurrencyFailureException ex, NativeWebRequest request) {
         Problem problem = Problem.builder().withStatus(Status.CONFLICT).with(MESSAGE_KEY, ErrorConstants.ERR_CONCURRENCY_FAILURE).build();
@@ -0,0 +1,122 @@
+package com.yo.web.rest.util;
+
+import com.yo.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination on the id of an entity.
+ * <p>
+ * A page is requested with the cursor returned by the previous page, and read with {@code where id > :lastId order by
+ * id}, so every page costs the same whatever its depth. The cursor is opaque to clients; the total count is only
+ * computed when asked for.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    public static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    public static final int DEFAULT_SIZE = 20;
+
+    public static final int MAX_SIZE = 1000;
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Encode the id of the last entity of a page as a cursor.
+     *
+     * @param lastId the id of the last entity of the page.
+     * @return the cursor.
+     */
+    public static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into the id of the last entity of the previous page.
+     *
+     * @param cursor the cursor, empty for the first page.
+     * @return the id to read after, {@link Long#MIN_VALUE} for the first page.
+     * @throws IllegalArgumentException if the cursor is not valid.
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Long.MIN_VALUE;
+        }
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!decoded.startsWith(CURSOR_PREFIX)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+    }
+
+    /**
+     * Decode the cursor of a request into the id of the last entity of the previous page.
+     *
+     * @param cursor the cursor, empty for the first page.
+     * @param entityName the name of the paged entity, reported with an invalid cursor.
+     * @return the id to read after, {@link Long#MIN_VALUE} for the first page.
+     * @throws BadRequestAlertException if the cursor is not valid.
+     */
+    public static long decodeCursor(String cursor, String entityName) {
+        try {
+            return decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Check the page size of a request.
+     *
+     * @param size the requested page size.
+     * @param entityName the name of the paged entity, reported with an invalid size.
+     * @return the page size.
+     * @throws BadRequestAlertException if the size is not between 1 and {@link #MAX_SIZE}.
+     */
+    public static int pageSize(int size, String entityName) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestAlertException("Invalid page size", entityName, "sizeinvalid");
+        }
+        return size;
+    }
+
+    /**
+     * Generate the keyset pagination headers: the next cursor and its {@code Link} when there is a next page, and
+     * the total count when it was computed.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param slice the page of entities.
+     * @param idOf the function returning the id of an entity.
+     * @param totalCount the total count, or {@code null} to leave it out.
+     * @param <T> the type of the entities.
+     * @return the headers.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        Slice<T> slice,
+        Function<T, Long> idOf,
+        Long totalCount
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            String nextCursor = encodeCursor(idOf.apply(content.get(content.size() - 1)));
+            headers.add(HEADER_NEXT_CURSOR, nextCursor);
+            String link = uriBuilder.replaceQueryParam("cursor", nextCursor).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        if (totalCount != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(totalCount));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,130 @@
+package com.yo.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.yo.config.ApplicationProperties;
+import com.yo.management.MethodMetersService;
+import com.yo.repository.DroneRepository;
+import com.yo.repository.MedicationRepository;
+import com.yo.service.FleetStateIndex;
+import com.yo.service.MedicationService;
+import com.yo.service.impl.MedicationServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.env.MockEnvironment;
+
+class LoggingAspectTest {
+
+    private static final String METHOD_METER_EXPECTED_NAME = "method.timed";
+
+    private MeterRegistry meterRegistry;
+
+    private MethodMetersService methodMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        methodMetersService = new MethodMetersService(meterRegistry, new ApplicationProperties());
+    }
+
+    @Test
+    void testCallsAreTimedByClassAndMethod() {
+        MedicationService medicationService = advise(new LoggingAspect(new MockEnvironment(), methodMetersService, 1.0));
+
+        medicationService.findOne(1L);
+        medicationService.findOne(2L);
+        medicationService.delete(1L);
+
+        assertThat(
+            meterRegistry
+                .get(METHOD_METER_EXPECTED_NAME)
+                .tag("class", "MedicationServiceImpl")
+                .tag("method", "findOne")
+                .timer()
+                .count()
+        )
+            .isEqualTo(2);
+        assertThat(meterRegistry.get(METHOD_METER_EXPECTED_NAME).tag("method", "delete").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testCallsThroughInterfaceAreTimedByTargetClass() {
+        MedicationService medicationService = advise(new LoggingAspect(new MockEnvironment(), methodMetersService, 1.0), false);
+
+        medicationService.findOne(1L);
+
+        assertThat(meterRegistry.get(METHOD_METER_EXPECTED_NAME).timer().getId().getTag("class")).isEqualTo("MedicationServiceImpl");
+    }
+
+    @Test
+    void testRepositoryCallsAreTimedByRepositoryInterface() {
+        LoggingAspect loggingAspect = new LoggingAspect(new MockEnvironment(), methodMetersService, 1.0);
+        DroneRepository droneRepository = adviseRepository(loggingAspect, DroneRepository.class);
+        MedicationRepository medicationRepository = adviseRepository(loggingAspect, MedicationRepository.class);
+
+        // both inherit findById from CrudRepository
+        droneRepository.findById(1L);
+        medicationRepository.findById(1L);
+        medicationRepository.findAllByIdGreaterThanOrderByIdAsc(1L, Pageable.unpaged());
+
+        assertThat(meterRegistry.get(METHOD_METER_EXPECTED_NAME).tag("class", "DroneRepository").tag("method", "findById").timer().count())
+            .isEqualTo(1);
+        assertThat(
+            meterRegistry.get(METHOD_METER_EXPECTED_NAME).tag("class", "MedicationRepository").tag("method", "findById").timer().count()
+        )
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(METHOD_METER_EXPECTED_NAME).tag("method", "findAllByIdGreaterThanOrderByIdAsc").timer().getId().getTag("class"))
+            .isEqualTo("MedicationRepository");
+    }
+
+    @Test
+    void testCallsAreNotTimedWithoutSampling() {
+        MedicationService medicationService = advise(new LoggingAspect(new MockEnvironment(), methodMetersService, 0));
+
+        medicationService.findOne(1L);
+
+        assertThat(meterRegistry.find(METHOD_METER_EXPECTED_NAME).timers()).isEmpty();
+    }
+
+    @Test
+    void testCallsAreSampled() {
+        MedicationService medicationService = advise(new LoggingAspect(new MockEnvironment(), methodMetersService, 0.5));
+
+        for (int i = 0; i < 1000; i++) {
+            medicationService.findOne(1L);
+        }
+
+        assertThat(meterRegistry.get(METHOD_METER_EXPECTED_NAME).timer().count()).isBetween(350L, 650L);
+    }
+
+    private MedicationService advise(LoggingAspect loggingAspect) {
+        return advise(loggingAspect, true);
+    }
+
+    private MedicationService advise(LoggingAspect loggingAspect, boolean proxyTargetClass) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(
+            new MedicationServiceImpl(mock(MedicationRepository.class), mock(DroneRepository.class), mock(FleetStateIndex.class))
+        );
+        proxyFactory.setProxyTargetClass(proxyTargetClass);
+        proxyFactory.addAspect(loggingAspect);
+        return proxyFactory.getProxy();
+    }
+
+    /**
+     * Advise a repository the way Spring Data creates it: an interface proxy over an implementation shared by all of them.
+     */
+    private static <T> T adviseRepository(LoggingAspect loggingAspect, Class<T> repositoryInterface) {
+        ProxyFactory repositoryFactory = new ProxyFactory(mock(repositoryInterface));
+        repositoryFactory.setInterfaces(repositoryInterface);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(repositoryFactory.getProxy());
+        proxyFactory.setInterfaces(repositoryInterface);
+        proxyFactory.addAspect(loggingAspect);
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,105 @@
+package com.yo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import com.yo.IntegrationTest;
+import com.yo.domain.Drone;
+import com.yo.domain.enumeration.Model;
+import com.yo.domain.enumeration.State;
+import com.yo.repository.DroneRepository;
+import com.yo.service.DroneService;
+import com.yo.service.DroneStateMachine;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.core.Ordered;
+import org.springframework.retry.annotation.RetryConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.BeanFactoryTransactionAttributeSourceAdvisor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the retries of the {@link OptimisticLockConfiguration}.
+ */
+@IntegrationTest
+class OptimisticLockConfigurationIT {
+
+    @Autowired
+    private DroneService droneService;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @SpyBean
+    private DroneStateMachine droneStateMachine;
+
+    private Drone drone;
+
+    @BeforeEach
+    public void initTest() {
+        drone =
+            droneRepository.saveAndFlush(
+                new Drone().serialNumber("RETRIED-0001").model(Model.Lightweight).weightLimit(100L).batteryCapacity(50).state(State.IDLE)
+            );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        droneRepository.deleteById(drone.getId());
+    }
+
+    @Test
+    void retryAdviceRunsBeforeTransactionAdvice() {
+        List<Advisor> advisors = List.of(((Advised) droneService).getAdvisors());
+        Advisor retryAdvisor = advisors.stream().filter(RetryConfiguration.class::isInstance).findFirst().orElseThrow();
+        Advisor transactionAdvisor = advisors
+            .stream()
+            .filter(BeanFactoryTransactionAttributeSourceAdvisor.class::isInstance)
+            .findFirst()
+            .orElseThrow();
+
+        // ordered explicitly, not left to the registration order of advisors of the same order
+        assertThat(((Ordered) retryAdvisor).getOrder()).isLessThan(((Ordered) transactionAdvisor).getOrder());
+        assertThat(advisors.indexOf(retryAdvisor)).isLessThan(advisors.indexOf(transactionAdvisor));
+    }
+
+    @Test
+    void updateLosingOptimisticLockIsRetriedInNewTransaction() {
+        TransactionTemplate concurrentTransaction = new TransactionTemplate(transactionManager);
+        concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+                // another update of the drone commits between the read and the write of the first attempt
+                if (attempts.incrementAndGet() == 1) {
+                    concurrentTransaction.executeWithoutResult(status ->
+                        droneRepository.findById(drone.getId()).orElseThrow().setBatteryCapacity(60)
+                    );
+                }
+                return invocation.callRealMethod();
+            })
+            .when(droneStateMachine)
+            .transition(any(Drone.class), any());
+
+        Drone update = new Drone().serialNumber("UPDATED-0001").model(Model.Lightweight).weightLimit(100L).batteryCapacity(70).state(State.IDLE);
+        update.setId(drone.getId());
+        droneService.update(update);
+
+        assertThat(attempts).hasValue(2);
+        Drone testDrone = droneRepository.findById(drone.getId()).orElseThrow();
+        assertThat(testDrone.getSerialNumber()).isEqualTo("UPDATED-0001");
+        assertThat(testDrone.getBatteryCapacity()).isEqualTo(70);
+        assertThat(testDrone.getVersion()).isEqualTo(drone.getVersion() + 2);
+    }
+}
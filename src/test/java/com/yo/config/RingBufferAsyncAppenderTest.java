@@ -0,0 +1,231 @@
+package com.yo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RingBufferAsyncAppenderTest {
+
+    private LoggerContext context;
+
+    private RingBufferAsyncAppender ringBufferAppender;
+
+    private RecordingAppender recordingAppender;
+
+    private AtomicInteger dropped;
+
+    private AtomicInteger blocked;
+
+    @BeforeEach
+    public void setup() {
+        context = new LoggerContext();
+        recordingAppender = new RecordingAppender();
+        recordingAppender.setContext(context);
+        recordingAppender.start();
+
+        dropped = new AtomicInteger();
+        blocked = new AtomicInteger();
+        ringBufferAppender = new RingBufferAsyncAppender();
+        ringBufferAppender.setContext(context);
+        ringBufferAppender.setName("TEST");
+        ringBufferAppender.addAppender(recordingAppender);
+        ringBufferAppender.setOverflowListener(
+            new RingBufferAsyncAppender.OverflowListener() {
+                @Override
+                public void dropped(ILoggingEvent event) {
+                    dropped.incrementAndGet();
+                }
+
+                @Override
+                public void blocked(ILoggingEvent event) {
+                    blocked.incrementAndGet();
+                }
+            }
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recordingAppender.release.countDown();
+        ringBufferAppender.stop();
+    }
+
+    @Test
+    void testEventsAreWrittenInOrderByTheWorker() throws Exception {
+        recordingAppender.release.countDown();
+        ringBufferAppender.setBufferSize(16);
+        ringBufferAppender.setOverflowPolicy(RingBufferAsyncAppender.OverflowPolicy.BLOCK);
+        ringBufferAppender.start();
+
+        for (int i = 0; i < 1000; i++) {
+            ringBufferAppender.doAppend(event("message " + i));
+        }
+        ringBufferAppender.stop();
+
+        assertThat(recordingAppender.messages).hasSize(1000).startsWith("message 0", "message 1").endsWith("message 999");
+        assertThat(recordingAppender.threadNames).containsOnly("logging-TEST");
+        assertThat(dropped).hasValue(0);
+    }
+
+    @Test
+    void testEventsAreDroppedWhenTheBufferIsFull() throws Exception {
+        ringBufferAppender.setBufferSize(4);
+        ringBufferAppender.start();
+
+        // the first event holds the worker, the next four fill the buffer
+        ringBufferAppender.doAppend(event("held"));
+        assertThat(recordingAppender.received.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 10; i++) {
+            ringBufferAppender.doAppend(event("message " + i));
+        }
+
+        assertThat(dropped).hasValue(6);
+        assertThat(ringBufferAppender.getDroppedCount()).isEqualTo(6);
+        assertThat(ringBufferAppender.getBufferedCount()).isEqualTo(4);
+
+        recordingAppender.release.countDown();
+        ringBufferAppender.stop();
+        assertThat(recordingAppender.messages).containsExactly("held", "message 0", "message 1", "message 2", "message 3");
+    }
+
+    @Test
+    void testLoggingThreadWaitsWhenTheBufferIsFull() throws Exception {
+        ringBufferAppender.setBufferSize(2);
+        ringBufferAppender.setOverflowPolicy(RingBufferAsyncAppender.OverflowPolicy.BLOCK);
+        ringBufferAppender.start();
+
+        ringBufferAppender.doAppend(event("held"));
+        assertThat(recordingAppender.received.await(5, TimeUnit.SECONDS)).isTrue();
+        ringBufferAppender.doAppend(event("message 0"));
+        ringBufferAppender.doAppend(event("message 1"));
+        CountDownLatch appended = new CountDownLatch(1);
+        Thread loggingThread = new Thread(() -> {
+            ringBufferAppender.doAppend(event("message 2"));
+            appended.countDown();
+        });
+        loggingThread.start();
+
+        assertThat(appended.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(blocked).hasValue(1);
+
+        recordingAppender.release.countDown();
+        assertThat(appended.await(5, TimeUnit.SECONDS)).isTrue();
+        ringBufferAppender.stop();
+        assertThat(recordingAppender.messages).containsExactly("held", "message 0", "message 1", "message 2");
+        assertThat(dropped).hasValue(0);
+    }
+
+    @Test
+    void testWarningsWaitWhenTheBufferIsFull() throws Exception {
+        ringBufferAppender.setBufferSize(2);
+        ringBufferAppender.start();
+
+        ringBufferAppender.doAppend(event("held"));
+        assertThat(recordingAppender.received.await(5, TimeUnit.SECONDS)).isTrue();
+        ringBufferAppender.doAppend(event("message 0"));
+        ringBufferAppender.doAppend(event("message 1"));
+        ringBufferAppender.doAppend(event("message 2"));
+        assertThat(dropped).hasValue(1);
+        CountDownLatch appended = new CountDownLatch(1);
+        Thread loggingThread = new Thread(() -> {
+            ringBufferAppender.doAppend(event(Level.WARN, "warning"));
+            appended.countDown();
+        });
+        loggingThread.start();
+
+        assertThat(appended.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(blocked).hasValue(1);
+
+        recordingAppender.release.countDown();
+        assertThat(appended.await(5, TimeUnit.SECONDS)).isTrue();
+        ringBufferAppender.stop();
+        assertThat(recordingAppender.messages).containsExactly("held", "message 0", "message 1", "warning");
+        assertThat(dropped).hasValue(1);
+    }
+
+    @Test
+    void testWarningsAreDroppedAfterTheMaxWait() throws Exception {
+        ringBufferAppender.setBufferSize(2);
+        ringBufferAppender.setMaxWarningWait(Duration.ofMillis(50));
+        ringBufferAppender.start();
+
+        ringBufferAppender.doAppend(event("held"));
+        assertThat(recordingAppender.received.await(5, TimeUnit.SECONDS)).isTrue();
+        ringBufferAppender.doAppend(event("message 0"));
+        ringBufferAppender.doAppend(event("message 1"));
+
+        long start = System.nanoTime();
+        ringBufferAppender.doAppend(event(Level.ERROR, "error"));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(blocked).hasValue(1);
+        assertThat(dropped).hasValue(1);
+    }
+
+    @Test
+    void testBufferSizeIsRoundedUpToAPowerOfTwo() {
+        recordingAppender.release.countDown();
+        ringBufferAppender.setBufferSize(5);
+        ringBufferAppender.start();
+
+        assertThat(ringBufferAppender.isStarted()).isTrue();
+        ringBufferAppender.setBufferSize(0);
+        ringBufferAppender.stop();
+        ringBufferAppender.start();
+        assertThat(ringBufferAppender.isStarted()).isFalse();
+    }
+
+    private LoggingEvent event(String message) {
+        return event(Level.INFO, message);
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(
+            RingBufferAsyncAppenderTest.class.getName(),
+            context.getLogger(RingBufferAsyncAppenderTest.class),
+            level,
+            message,
+            null,
+            null
+        );
+    }
+
+    /**
+     * Records the events, waiting for {@link #release} before writing the first one.
+     */
+    private static class RecordingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        private final List<String> threadNames = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch received = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            received.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(event.getFormattedMessage());
+            threadNames.add(Thread.currentThread().getName());
+        }
+    }
+}
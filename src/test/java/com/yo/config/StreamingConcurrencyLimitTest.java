@@ -0,0 +1,75 @@
+package com.yo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.Callable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+class StreamingConcurrencyLimitTest {
+
+    private static final Callable<Object> TASK = () -> null;
+
+    private StreamingConcurrencyLimit streamingConcurrencyLimit;
+
+    @BeforeEach
+    public void setup() {
+        streamingConcurrencyLimit = new StreamingConcurrencyLimit(2);
+    }
+
+    @Test
+    void testRequestOverLimitIsRejected() throws Exception {
+        streamingConcurrencyLimit.beforeConcurrentHandling(newRequest(), TASK);
+        streamingConcurrencyLimit.beforeConcurrentHandling(newRequest(), TASK);
+
+        assertThatThrownBy(() -> streamingConcurrencyLimit.beforeConcurrentHandling(newRequest(), TASK))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(streamingConcurrencyLimit.availablePermits()).isZero();
+    }
+
+    @Test
+    void testPermitIsReleasedOnceWhenTaskEnds() throws Exception {
+        NativeWebRequest request = newRequest();
+        streamingConcurrencyLimit.beforeConcurrentHandling(request, TASK);
+
+        streamingConcurrencyLimit.postProcess(request, TASK, null);
+        assertThat(streamingConcurrencyLimit.availablePermits()).isEqualTo(2);
+        streamingConcurrencyLimit.afterCompletion(request, TASK);
+
+        assertThat(streamingConcurrencyLimit.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void testPermitIsReleasedOnCompletionWithoutTask() throws Exception {
+        NativeWebRequest request = newRequest();
+        streamingConcurrencyLimit.beforeConcurrentHandling(request, TASK);
+
+        streamingConcurrencyLimit.afterCompletion(request, TASK);
+
+        assertThat(streamingConcurrencyLimit.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void testRejectedRequestReleasesNothing() throws Exception {
+        streamingConcurrencyLimit.beforeConcurrentHandling(newRequest(), TASK);
+        streamingConcurrencyLimit.beforeConcurrentHandling(newRequest(), TASK);
+        NativeWebRequest rejected = newRequest();
+        assertThatThrownBy(() -> streamingConcurrencyLimit.beforeConcurrentHandling(rejected, TASK));
+
+        streamingConcurrencyLimit.afterCompletion(rejected, TASK);
+
+        assertThat(streamingConcurrencyLimit.availablePermits()).isZero();
+    }
+
+    private static NativeWebRequest newRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest());
+    }
+}
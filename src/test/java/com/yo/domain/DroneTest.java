@@ -2,7 +2,9 @@ package com.yo.domain;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yo.web.rest.TestUtil;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 class DroneTest {
@@ -20,4 +22,50 @@ class DroneTest {
         drone1.setId(null);
         assertThat(drone1).isNotEqualTo(drone2);
     }
+
+    @Test
+    void medicationsAreIndexedById() {
+        Drone drone = new Drone();
+        for (long id = 1; id <= 1000; id++) {
+            drone.addMedication(new Medication().id(id));
+        }
+
+        assertThat(drone.getMedications()).hasSize(1000);
+        assertThat(drone.findMedication(500L)).isNotNull().extracting(Medication::getDrone).isSameAs(drone);
+        assertThat(drone.getMedications()).contains(new Medication().id(500L));
+
+        drone.removeMedication(new Medication().id(500L));
+        assertThat(drone.getMedications()).hasSize(999).doesNotContain(new Medication().id(500L));
+        assertThat(drone.findMedication(500L)).isNull();
+    }
+
+    @Test
+    void unsavedMedicationsAreIndexedOnceTheyHaveAnId() {
+        Drone drone = new Drone();
+        Medication first = new Medication();
+        Medication second = new Medication();
+        drone.addMedication(first).addMedication(second).addMedication(new Medication().id(1L));
+
+        assertThat(drone.getMedications()).hasSize(3).contains(first, second).doesNotContain(new Medication());
+
+        first.setId(2L);
+        assertThat(drone.findMedication(2L)).isSameAs(first);
+        assertThat(drone.getMedications()).hasSize(3).containsOnly(first, second, new Medication().id(1L));
+
+        drone.removeMedication(second);
+        assertThat(drone.getMedications()).hasSize(2).doesNotContain(second);
+        assertThat(second.getDrone()).isNull();
+    }
+
+    @Test
+    void medicationsAreReplaced() throws Exception {
+        Medication previous = new Medication().id(1L);
+        Drone drone = new Drone().id(1L).addMedication(previous);
+
+        drone.setMedications(Set.of(new Medication().id(2L), new Medication().id(3L)));
+
+        assertThat(previous.getDrone()).isNull();
+        assertThat(drone.getMedications()).extracting(Medication::getId).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(new ObjectMapper().writeValueAsString(drone)).contains("\"medications\":[{\"id\":2,");
+    }
 }
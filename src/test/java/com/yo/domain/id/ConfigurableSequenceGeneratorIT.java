@@ -0,0 +1,49 @@
+package com.yo.domain.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yo.IntegrationTest;
+import com.yo.config.ApplicationProperties;
+import com.yo.domain.Drone;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for the {@link ConfigurableSequenceGenerator}.
+ */
+@IntegrationTest
+class ConfigurableSequenceGeneratorIT {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void incrementFollowsApplicationSequences() {
+        int allocationSize = applicationProperties.getSequences().get("drone_sequence").getAllocationSize();
+        // the test configuration sets an allocation size other than the default of the mapping
+        assertThat(allocationSize).isNotEqualTo(50);
+
+        SequenceStyleGenerator generator = (SequenceStyleGenerator) entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getIdentifierGenerator(Drone.class.getName());
+
+        assertThat(generator.getOptimizer().getIncrementSize()).isEqualTo(allocationSize);
+        assertThat(
+            jdbcTemplate.queryForObject(
+                "select increment from information_schema.sequences where sequence_name = 'DRONE_SEQUENCE'",
+                Integer.class
+            )
+        )
+            .isEqualTo(allocationSize);
+    }
+}
@@ -0,0 +1,51 @@
+package com.yo.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoggingMetersServiceTests {
+
+    private static final String DROPPED_METER_EXPECTED_NAME = "logging.async.dropped";
+
+    private static final String BLOCKED_METER_EXPECTED_NAME = "logging.async.blocked";
+
+    private static final String BUFFERED_METER_EXPECTED_NAME = "logging.async.buffered";
+
+    private MeterRegistry meterRegistry;
+
+    private LoggingMetersService loggingMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        loggingMetersService = new LoggingMetersService(meterRegistry);
+    }
+
+    @Test
+    void testDroppedEventsAreCountedByLevel() {
+        loggingMetersService.trackDropped(Level.INFO);
+        loggingMetersService.trackDropped(Level.INFO);
+        loggingMetersService.trackDropped(Level.ERROR);
+        loggingMetersService.trackBlocked();
+
+        assertThat(meterRegistry.get(DROPPED_METER_EXPECTED_NAME).tag("level", "INFO").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(DROPPED_METER_EXPECTED_NAME).tag("level", "ERROR").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(DROPPED_METER_EXPECTED_NAME).tag("level", "DEBUG").counter().count()).isZero();
+        assertThat(meterRegistry.get(BLOCKED_METER_EXPECTED_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testBufferedEventsAreReadFromTheBufferInUse() {
+        assertThat(meterRegistry.get(BUFFERED_METER_EXPECTED_NAME).gauge().value()).isZero();
+
+        loggingMetersService.trackBuffer(() -> 42);
+
+        assertThat(meterRegistry.get(BUFFERED_METER_EXPECTED_NAME).gauge().value()).isEqualTo(42);
+    }
+}
@@ -0,0 +1,63 @@
+package com.yo.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yo.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MethodMetersServiceTests {
+
+    private static final String METHOD_METER_EXPECTED_NAME = "method.timed";
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @Test
+    void testTimersAreTaggedByClassAndMethod() {
+        MethodMetersService methodMetersService = new MethodMetersService(meterRegistry, applicationProperties);
+
+        methodMetersService.methodTimer("DroneServiceImpl", "save").record(5, TimeUnit.MILLISECONDS);
+        methodMetersService.methodTimer("DroneServiceImpl", "save").record(7, TimeUnit.MILLISECONDS);
+        methodMetersService.methodTimer("DroneRepository", "save");
+
+        Timer timer = meterRegistry.get(METHOD_METER_EXPECTED_NAME).tag("class", "DroneServiceImpl").tag("method", "save").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(12);
+        assertThat(meterRegistry.get(METHOD_METER_EXPECTED_NAME).timers()).hasSize(2);
+    }
+
+    @Test
+    void testTimersPublishAHistogram() {
+        PrometheusMeterRegistry prometheusMeterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        MethodMetersService methodMetersService = new MethodMetersService(prometheusMeterRegistry, applicationProperties);
+
+        methodMetersService.methodTimer("DroneServiceImpl", "save").record(5, TimeUnit.MILLISECONDS);
+
+        assertThat(prometheusMeterRegistry.scrape()).contains("method_timed_seconds_bucket{class=\"DroneServiceImpl\",method=\"save\"");
+    }
+
+    @Test
+    void testHistogramCanBeDisabled() {
+        applicationProperties.getInstrumentation().setPercentilesHistogram(false);
+        PrometheusMeterRegistry prometheusMeterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        MethodMetersService methodMetersService = new MethodMetersService(prometheusMeterRegistry, applicationProperties);
+
+        methodMetersService.methodTimer("DroneServiceImpl", "save").record(5, TimeUnit.MILLISECONDS);
+
+        assertThat(prometheusMeterRegistry.scrape()).contains("method_timed_seconds_count").doesNotContain("method_timed_seconds_bucket");
+    }
+}
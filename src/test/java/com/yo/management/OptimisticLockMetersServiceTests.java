@@ -0,0 +1,40 @@
+package com.yo.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OptimisticLockMetersServiceTests {
+
+    private static final String CONFLICTS_METER_EXPECTED_NAME = "optimistic-lock.conflicts";
+
+    private static final String RETRIES_METER_EXPECTED_NAME = "optimistic-lock.retries";
+
+    private MeterRegistry meterRegistry;
+
+    private OptimisticLockMetersService optimisticLockMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        optimisticLockMetersService = new OptimisticLockMetersService(meterRegistry);
+    }
+
+    @Test
+    void testCountersAreTaggedByOperation() {
+        optimisticLockMetersService.trackConflict("drone.update");
+        optimisticLockMetersService.trackConflict("drone.update");
+        optimisticLockMetersService.trackConflict("drone.partialUpdate");
+        optimisticLockMetersService.trackRetry("drone.update");
+
+        assertThat(meterRegistry.get(CONFLICTS_METER_EXPECTED_NAME).tag("operation", "drone.update").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(CONFLICTS_METER_EXPECTED_NAME).tag("operation", "drone.partialUpdate").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(RETRIES_METER_EXPECTED_NAME).tag("operation", "drone.update").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(RETRIES_METER_EXPECTED_NAME).tag("operation", "drone.partialUpdate").counter()).isNull();
+    }
+}
@@ -2,6 +2,7 @@ package com.yo.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.yo.config.ApplicationProperties;
 import com.yo.management.SecurityMetersService;
 import com.yo.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
@@ -43,7 +44,7 @@ class TokenProviderSecurityMetersTests {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService, new ApplicationProperties());
         Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -107,6 +108,16 @@ class TokenProviderSecurityMetersTests {
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
 
+    @Test
+    void testTokenSignatureInvalidCountEachTime() {
+        String tokenWithDifferentSignature = createTokenWithDifferentSignature();
+
+        tokenProvider.validateToken(tokenWithDifferentSignature);
+        tokenProvider.validateToken(tokenWithDifferentSignature);
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "invalid-signature").counter().count()).isEqualTo(2);
+    }
+
     private String createValidToken() {
         Authentication authentication = createAuthentication();
 
@@ -2,16 +2,21 @@ package com.yo.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.yo.config.ApplicationProperties;
 import com.yo.management.SecurityMetersService;
 import com.yo.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
 import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -36,7 +41,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService, new ApplicationProperties());
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -88,6 +93,51 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testValidatedTokenIsNotVerifiedAgainUntilItExpires() {
+        AtomicLong nanos = new AtomicLong();
+        TokenProvider cachingTokenProvider = createTokenProvider(10, nanos::get);
+        String token = cachingTokenProvider.createToken(createAuthentication(), false);
+
+        Authentication authentication = cachingTokenProvider.resolveAuthentication(token).orElseThrow();
+        assertThat(authentication.getName()).isEqualTo("anonymous");
+
+        // a token signed with the previous key would not be valid anymore, if it was verified again
+        ReflectionTestUtils.setField(cachingTokenProvider, "jwtParser", Jwts.parserBuilder().setSigningKey(createOtherKey()).build());
+        assertThat(cachingTokenProvider.resolveAuthentication(token))
+            .hasValueSatisfying(cached -> assertThat(cached.getPrincipal()).isSameAs(authentication.getPrincipal()));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(2 * ONE_MINUTE));
+        assertThat(cachingTokenProvider.resolveAuthentication(token)).isEmpty();
+    }
+
+    @Test
+    void testValidatedTokenGivesEachRequestItsOwnAuthentication() {
+        TokenProvider cachingTokenProvider = createTokenProvider(10, Ticker.systemTicker());
+        String token = cachingTokenProvider.createToken(createAuthentication(), false);
+
+        Authentication first = cachingTokenProvider.getAuthentication(token);
+        ((UsernamePasswordAuthenticationToken) first).setDetails("first request");
+        first.setAuthenticated(false);
+        Authentication second = cachingTokenProvider.getAuthentication(token);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getDetails()).isNull();
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo("anonymous");
+    }
+
+    @Test
+    void testValidatedTokenIsVerifiedAgainWhenTheCacheIsDisabled() {
+        TokenProvider nonCachingTokenProvider = createTokenProvider(0, Ticker.systemTicker());
+        String token = nonCachingTokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(nonCachingTokenProvider.validateToken(token)).isTrue();
+
+        ReflectionTestUtils.setField(nonCachingTokenProvider, "jwtParser", Jwts.parserBuilder().setSigningKey(createOtherKey()).build());
+        assertThat(nonCachingTokenProvider.validateToken(token)).isFalse();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -96,7 +146,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService, new ApplicationProperties());
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,12 +160,25 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService, new ApplicationProperties());
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    private TokenProvider createTokenProvider(long maxEntries, Ticker ticker) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(Encoders.BASE64.encode(key.getEncoded()));
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            new SecurityMetersService(new SimpleMeterRegistry()),
+            maxEntries,
+            ticker
+        );
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
+        return tokenProvider;
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -127,9 +190,7 @@ class TokenProviderTest {
     }
 
     private String createTokenWithDifferentSignature() {
-        Key otherKey = Keys.hmacShaKeyFor(
-            Decoders.BASE64.decode("Xfd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8")
-        );
+        Key otherKey = createOtherKey();
 
         return Jwts
             .builder()
@@ -138,4 +199,10 @@ class TokenProviderTest {
             .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
             .compact();
     }
+
+    private Key createOtherKey() {
+        return Keys.hmacShaKeyFor(
+            Decoders.BASE64.decode("Xfd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8")
+        );
+    }
 }
@@ -0,0 +1,67 @@
+package com.yo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yo.config.ApplicationProperties;
+import com.yo.repository.BatteryHistoryRepository;
+import com.yo.repository.DroneBatteryLevel;
+import com.yo.repository.DroneRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatteryAuditServiceTest {
+
+    private DroneRepository droneRepository;
+
+    private BatteryHistoryRepository batteryHistoryRepository;
+
+    private BatteryAuditService batteryAuditService;
+
+    @BeforeEach
+    public void setup() {
+        droneRepository = mock(DroneRepository.class);
+        batteryHistoryRepository = mock(BatteryHistoryRepository.class);
+        ApplicationProperties.Battery.Audit properties = new ApplicationProperties.Battery.Audit();
+        properties.setPartitionSize(1000);
+        properties.setParallelism(2);
+        Clock clock = Clock.fixed(Instant.parse("2026-10-18T10:00:00Z"), ZoneOffset.UTC);
+        batteryAuditService = new BatteryAuditService(droneRepository, batteryHistoryRepository, Runnable::run, properties, clock);
+
+        DroneBatteryLevel level = mock(DroneBatteryLevel.class);
+        when(droneRepository.findBatteryLevelsByIdBetween(anyLong(), anyLong())).thenReturn(List.of(level));
+        when(batteryHistoryRepository.insertAll(anyList(), any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+    }
+
+    @Test
+    void testSweepCoversIdRangeByPartitions() {
+        when(droneRepository.findMinId()).thenReturn(1L);
+        when(droneRepository.findMaxId()).thenReturn(2500L);
+
+        assertThat(batteryAuditService.sweep()).isEqualTo(3);
+
+        verify(droneRepository).findBatteryLevelsByIdBetween(1L, 1000L);
+        verify(droneRepository).findBatteryLevelsByIdBetween(1001L, 2000L);
+        verify(droneRepository).findBatteryLevelsByIdBetween(2001L, 2500L);
+    }
+
+    @Test
+    void testSweepOfEmptyFleet() {
+        when(droneRepository.findMinId()).thenReturn(null);
+        when(droneRepository.findMaxId()).thenReturn(null);
+
+        assertThat(batteryAuditService.sweep()).isZero();
+
+        verify(batteryHistoryRepository, never()).insertAll(anyList(), any());
+    }
+}
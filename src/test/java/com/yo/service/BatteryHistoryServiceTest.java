@@ -0,0 +1,107 @@
+package com.yo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yo.config.ApplicationProperties;
+import com.yo.repository.BatteryHistoryRepository;
+import com.yo.repository.BatteryHistoryRepository.Resolution;
+import com.yo.repository.BatteryRollup;
+import com.yo.service.dto.BatteryHistoryDTO;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatteryHistoryServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:30:30Z");
+
+    private BatteryHistoryRepository batteryHistoryRepository;
+
+    private BatteryHistoryService batteryHistoryService;
+
+    @BeforeEach
+    public void setup() {
+        batteryHistoryRepository = mock(BatteryHistoryRepository.class);
+        ApplicationProperties.Battery properties = new ApplicationProperties.Battery();
+        batteryHistoryService = new BatteryHistoryService(batteryHistoryRepository, properties, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testResolutionFitsMaxPoints() {
+        assertThat(batteryHistoryService.resolutionFor(Duration.ofHours(1), 500)).isEqualTo(Resolution.RAW);
+        assertThat(batteryHistoryService.resolutionFor(Duration.ofDays(1), 500)).isEqualTo(Resolution.HOUR);
+        assertThat(batteryHistoryService.resolutionFor(Duration.ofDays(1), 2000)).isEqualTo(Resolution.RAW);
+        assertThat(batteryHistoryService.resolutionFor(Duration.ofDays(7), 500)).isEqualTo(Resolution.HOUR);
+        assertThat(batteryHistoryService.resolutionFor(Duration.ofDays(365), 500)).isEqualTo(Resolution.HOUR);
+    }
+
+    @Test
+    void testHistoryAveragesBuckets() {
+        Instant from = NOW.minus(Duration.ofDays(7));
+        when(batteryHistoryRepository.findSeries(Resolution.HOUR, null, from, NOW))
+            .thenReturn(List.of(new BatteryRollup(from, 20, 80, 150, 3), new BatteryRollup(from.plusSeconds(3600), null, null, 0, 0)));
+
+        BatteryHistoryDTO history = batteryHistoryService.findHistory(null, from, NOW, null);
+
+        assertThat(history.getResolution()).isEqualTo(Resolution.HOUR);
+        assertThat(history.getPoints()).extracting("avg").containsExactly(50.0, null);
+    }
+
+    @Test
+    void testHistoryMaxPointsIsCapped() {
+        Instant from = NOW.minus(Duration.ofDays(1));
+
+        BatteryHistoryDTO history = batteryHistoryService.findHistory(null, from, NOW, 2000);
+
+        assertThat(history.getResolution()).isEqualTo(Resolution.HOUR);
+        verify(batteryHistoryRepository).findSeries(Resolution.HOUR, null, from, NOW);
+    }
+
+    @Test
+    void testRollupOnlyCoversCompleteBuckets() {
+        when(batteryHistoryRepository.findRollupStart(Resolution.MINUTE)).thenReturn(Optional.of(Instant.parse("2026-10-18T09:58:00Z")));
+        when(batteryHistoryRepository.findRollupStart(Resolution.HOUR)).thenReturn(Optional.of(Instant.parse("2026-10-18T09:00:00Z")));
+
+        batteryHistoryService.rollup();
+
+        // the lag leaves 10:29:30, so the minute bucket of 10:29 is not complete yet
+        verify(batteryHistoryRepository)
+            .rollup(Resolution.MINUTE, Instant.parse("2026-10-18T09:58:00Z"), Instant.parse("2026-10-18T10:29:00Z"));
+        verify(batteryHistoryRepository)
+            .rollup(Resolution.HOUR, Instant.parse("2026-10-18T09:00:00Z"), Instant.parse("2026-10-18T10:00:00Z"));
+    }
+
+    @Test
+    void testRollupWithoutHistory() {
+        when(batteryHistoryRepository.findRollupStart(Resolution.MINUTE)).thenReturn(Optional.empty());
+
+        batteryHistoryService.rollup();
+
+        verify(batteryHistoryRepository, never()).rollup(any(), any(), any());
+    }
+
+    @Test
+    void testMaintenanceCreatesPartitionsAhead() {
+        when(batteryHistoryRepository.isPartitioned()).thenReturn(true);
+        when(batteryHistoryRepository.dropPartitionsBefore(any())).thenReturn(List.of());
+
+        batteryHistoryService.maintainPartitions();
+
+        verify(batteryHistoryRepository).createPartition(LocalDate.of(2026, 10, 19));
+        verify(batteryHistoryRepository).createPartition(LocalDate.of(2026, 10, 25));
+        verify(batteryHistoryRepository).dropPartitionsBefore(LocalDate.of(2026, 9, 18));
+        verify(batteryHistoryRepository).deleteBefore(eq(NOW.minus(Duration.ofDays(30))));
+    }
+}
@@ -0,0 +1,170 @@
+package com.yo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yo.repository.DroneBatteryLevel;
+import com.yo.repository.DroneRepository;
+import com.yo.service.dto.BatteryLevelDTO;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatteryLevelCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T09:00:00Z");
+
+    private DroneRepository droneRepository;
+
+    private Clock clock;
+
+    private BatteryLevelCache batteryLevelCache;
+
+    @BeforeEach
+    public void setup() {
+        droneRepository = mock(DroneRepository.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        batteryLevelCache = new BatteryLevelCache(droneRepository, Duration.ofSeconds(5), clock);
+
+        when(droneRepository.findBatteryLevelsByIdIn(anyCollection())).thenReturn(List.of(level(1L, 80)));
+        when(droneRepository.findAllBatteryLevels()).thenReturn(List.of(level(1L, 80), level(2L, 40)));
+    }
+
+    @Test
+    void testSnapshotIsServedWhileFresh() {
+        assertThat(batteryLevelCache.get(1L)).hasValueSatisfying(level -> assertThat(level.getBatteryCapacity()).isEqualTo(80));
+        when(clock.instant()).thenReturn(NOW.plusSeconds(5));
+        assertThat(batteryLevelCache.get(1L)).isPresent();
+
+        verify(droneRepository, times(1)).findBatteryLevelsByIdIn(anyCollection());
+    }
+
+    @Test
+    void testManyDronesAreRefreshedInChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, 2 * BatteryLevelCache.REFRESH_CHUNK_SIZE + 1).boxed().collect(Collectors.toList());
+
+        assertThat(batteryLevelCache.getAll(ids)).extracting("id").containsExactly(1L);
+
+        verify(droneRepository, times(3)).findBatteryLevelsByIdIn(argThat(chunk -> chunk.size() <= BatteryLevelCache.REFRESH_CHUNK_SIZE));
+    }
+
+    @Test
+    void testStaleSnapshotIsRefreshed() {
+        batteryLevelCache.get(1L);
+        when(clock.instant()).thenReturn(NOW.plusSeconds(6));
+        assertThat(batteryLevelCache.get(1L).get().getRefreshedAt()).isEqualTo(NOW.plusSeconds(6));
+
+        verify(droneRepository, times(2)).findBatteryLevelsByIdIn(anyCollection());
+    }
+
+    @Test
+    void testUnknownDroneIsSkipped() {
+        assertThat(batteryLevelCache.getAll(List.of(1L, 3L))).extracting("id").containsExactly(1L);
+        assertThat(batteryLevelCache.get(3L)).isEmpty();
+    }
+
+    @Test
+    void testFleetIsRefreshedOnce() {
+        assertThat(batteryLevelCache.getAll()).extracting("id").containsExactly(1L, 2L);
+        assertThat(batteryLevelCache.getAll()).hasSize(2);
+        assertThat(batteryLevelCache.get(2L)).isPresent();
+
+        verify(droneRepository, times(1)).findAllBatteryLevels();
+    }
+
+    @Test
+    void testEvictedSnapshotIsReloaded() {
+        batteryLevelCache.get(1L);
+        batteryLevelCache.evict(1L);
+        batteryLevelCache.get(1L);
+
+        verify(droneRepository, times(2)).findBatteryLevelsByIdIn(anyCollection());
+    }
+
+    @Test
+    void testEvictionOnlyReloadsTheEvictedSnapshot() {
+        batteryLevelCache.getAll();
+        batteryLevelCache.evict(1L);
+        when(droneRepository.findBatteryLevelsByIdIn(anyCollection())).thenReturn(List.of(level(1L, 70)));
+
+        assertThat(batteryLevelCache.getAll()).extracting("batteryCapacity").containsExactly(70, 40);
+
+        verify(droneRepository, times(1)).findAllBatteryLevels();
+        verify(droneRepository, times(1)).findBatteryLevelsByIdIn(eq(List.of(1L)));
+    }
+
+    @Test
+    void testWrittenDroneJoinsTheFleet() {
+        batteryLevelCache.getAll();
+        batteryLevelCache.evict(3L);
+        when(droneRepository.findBatteryLevelsByIdIn(anyCollection())).thenReturn(List.of(level(3L, 100)));
+
+        assertThat(batteryLevelCache.getAll()).extracting("id").containsExactly(1L, 2L, 3L);
+
+        verify(droneRepository, times(1)).findAllBatteryLevels();
+    }
+
+    @Test
+    void testConcurrentRefreshesAreCoalesced() throws Exception {
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(droneRepository.findBatteryLevelsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            querying.countDown();
+            release.await();
+            return List.of(level(1L, 80));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<BatteryLevelDTO>> first = executor.submit(() -> batteryLevelCache.get(1L));
+            querying.await();
+            AtomicReference<Thread> waiter = new AtomicReference<>();
+            Future<Optional<BatteryLevelDTO>> second = executor.submit(() -> {
+                waiter.set(Thread.currentThread());
+                return batteryLevelCache.get(1L);
+            });
+            // the second caller parks on the refresh of the first one
+            while (waiter.get() == null || waiter.get().getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThat(first.get()).isPresent();
+            assertThat(second.get()).isPresent();
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(droneRepository, times(1)).findBatteryLevelsByIdIn(anyCollection());
+    }
+
+    private static DroneBatteryLevel level(Long id, Integer batteryCapacity) {
+        return new DroneBatteryLevel() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getBatteryCapacity() {
+                return batteryCapacity;
+            }
+        };
+    }
+}
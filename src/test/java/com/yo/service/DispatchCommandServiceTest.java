@@ -0,0 +1,170 @@
+package com.yo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yo.domain.Drone;
+import com.yo.domain.Medication;
+import com.yo.service.dto.DispatchCommandDTO;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class DispatchCommandServiceTest {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private static final int MAX_IN_PROGRESS = 2;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private DispatchCommandService dispatchCommandService;
+
+    @BeforeEach
+    public void setup() {
+        dispatchCommandService =
+            new DispatchCommandService(submitted::add, new ObjectMapper(), 100, MAX_IN_PROGRESS, TIME_TO_LIVE, nanos::get, Clock.systemUTC());
+        login("dispatcher");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testCommandRunsOncePerIdempotencyKey() {
+        DispatchCommandDTO command = submitLoad("key-1", 10);
+        DispatchCommandDTO again = submitLoad("key-1", 10);
+
+        assertThat(command.getStatus()).isEqualTo(DispatchCommandDTO.Status.PENDING);
+        assertThat(again.getId()).isEqualTo(command.getId());
+        assertThat(submitted).hasSize(1);
+
+        submitted.get(0).run();
+        DispatchCommandDTO completed = dispatchCommandService.findOne(command.getId()).orElseThrow();
+        assertThat(completed.getStatus()).isEqualTo(DispatchCommandDTO.Status.SUCCEEDED);
+        assertThat(completed.getDrone().getId()).isEqualTo(1L);
+        assertThat(completed.getCompletedAt()).isNotNull();
+
+        assertThat(submitLoad("key-1", 10).getStatus()).isEqualTo(DispatchCommandDTO.Status.SUCCEEDED);
+        assertThat(submitted).hasSize(1);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void testKeysAreScopedByUser() {
+        DispatchCommandDTO command = submitLoad("key-1", 10);
+
+        login("other");
+        assertThat(dispatchCommandService.findOne(command.getId())).isEmpty();
+        assertThat(submitLoad("key-1", 10).getId()).isNotEqualTo(command.getId());
+        assertThat(submitted).hasSize(2);
+    }
+
+    @Test
+    void testKeyReusedForAnotherCommandIsRejected() {
+        submitLoad("key-1", 10);
+
+        assertThatThrownBy(() -> submitLoad("key-1", 20)).isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void testFailureIsRecorded() {
+        DispatchCommandDTO command = dispatchCommandService.submit(
+            "key-1",
+            DispatchCommandDTO.Type.LOAD,
+            1L,
+            new Medication(),
+            () -> {
+                throw new DroneLoadException("Drone weight limit exceeded", "weightlimitexceeded");
+            }
+        );
+        submitted.get(0).run();
+
+        DispatchCommandDTO failed = dispatchCommandService.findOne(command.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(DispatchCommandDTO.Status.FAILED);
+        assertThat(failed.getErrorKey()).isEqualTo("weightlimitexceeded");
+        assertThat(failed.getError()).isEqualTo("Drone weight limit exceeded");
+    }
+
+    @Test
+    void testErrorIsRecordedAndRethrown() {
+        DispatchCommandDTO command = dispatchCommandService.submit(
+            "key-1",
+            DispatchCommandDTO.Type.LOAD,
+            1L,
+            new Medication(),
+            () -> {
+                throw new OutOfMemoryError("Java heap space");
+            }
+        );
+
+        assertThatThrownBy(() -> submitted.get(0).run()).isInstanceOf(OutOfMemoryError.class);
+
+        DispatchCommandDTO failed = dispatchCommandService.findOne(command.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(DispatchCommandDTO.Status.FAILED);
+        assertThat(failed.getErrorKey()).isEqualTo(DispatchCommandService.INTERNAL_ERROR_KEY);
+        assertThat(failed.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void testCommandsInProgressAreBounded() {
+        submitLoad("key-1", 10);
+        submitLoad("key-2", 10);
+
+        assertThatThrownBy(() -> submitLoad("key-3", 10)).isInstanceOf(RejectedExecutionException.class);
+        assertThat(submitted).hasSize(2);
+
+        submitted.get(0).run();
+        DispatchCommandDTO command = submitLoad("key-3", 10);
+        assertThat(command.getStatus()).isEqualTo(DispatchCommandDTO.Status.PENDING);
+        assertThat(submitted).hasSize(3);
+    }
+
+    @Test
+    void testOnlyCompletedCommandsExpire() {
+        DispatchCommandDTO pending = submitLoad("key-1", 10);
+        DispatchCommandDTO completed = submitLoad("key-2", 10);
+        submitted.get(1).run();
+
+        nanos.addAndGet(TIME_TO_LIVE.toNanos() + TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(dispatchCommandService.findOne(pending.getId())).isPresent();
+        assertThat(dispatchCommandService.findOne(completed.getId())).isEmpty();
+        submitLoad("key-2", 10);
+        assertThat(submitted).hasSize(3);
+    }
+
+    private DispatchCommandDTO submitLoad(String idempotencyKey, int weight) {
+        return dispatchCommandService.submit(
+            idempotencyKey,
+            DispatchCommandDTO.Type.LOAD,
+            1L,
+            new Medication().name("Aspirin").weght(weight),
+            () -> {
+                runs.incrementAndGet();
+                return new Drone().id(1L);
+            }
+        );
+    }
+
+    private static void login(String login) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(login, "password"));
+    }
+}
@@ -0,0 +1,209 @@
+package com.yo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yo.domain.Drone;
+import com.yo.domain.enumeration.Model;
+import com.yo.domain.enumeration.State;
+import com.yo.repository.DroneRepository;
+import com.yo.service.dto.DroneImportReportDTO;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class DroneImportServiceTest {
+
+    private static final String HEADER = "id;serial_number;model;weight_limit;battery_capacity;state\n";
+
+    private DroneRepository droneRepository;
+
+    private FleetStateIndex fleetStateIndex;
+
+    private DroneImportService droneImportService;
+
+    private List<Drone> inserted;
+
+    @BeforeEach
+    public void setup() {
+        droneRepository = mock(DroneRepository.class);
+        fleetStateIndex = mock(FleetStateIndex.class);
+        droneImportService =
+            new DroneImportService(
+                droneRepository,
+                fleetStateIndex,
+                mock(BatteryLevelCache.class),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                mock(PlatformTransactionManager.class),
+                2
+            );
+
+        inserted = new ArrayList<>();
+        AtomicLong sequence = new AtomicLong(1000);
+        doAnswer(invocation -> {
+                List<Drone> drones = invocation.getArgument(0);
+                drones.forEach(drone -> inserted.add(drone.id(sequence.getAndIncrement())));
+                return null;
+            })
+            .when(droneRepository)
+            .insertAll(anyList());
+    }
+
+    @Test
+    void testCsvRowsAreClassifiedAndInsertedInChunks() throws Exception {
+        String csv =
+            HEADER +
+            "1;violet asynchronous;Middleweight;200;90;LOADING\n" +
+            "2;Extended IB;Lightweight;300;34;LOADED\n" +
+            "\n" +
+            "3;Practical Loan;Lightweight;450;;IDLE\n";
+
+        DroneImportReportDTO report = droneImportService.importDrones(new StringReader(csv), DroneImportService.Format.CSV);
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getRejected()).isZero();
+        verify(droneRepository, times(2)).insertAll(anyList());
+        verify(fleetStateIndex, times(2)).registerAll(anyList());
+        assertThat(inserted).extracting(Drone::getId).containsExactly(1000L, 1001L, 1002L);
+        assertThat(inserted).extracting(Drone::getModel).containsExactly(Model.Lightweight, Model.Middleweight, Model.Heavyweight);
+        assertThat(inserted).extracting(Drone::getState).containsOnly(State.IDLE);
+        assertThat(inserted).extracting(Drone::getLoadedWeight).containsOnly(0L);
+        assertThat(inserted.get(2).getBatteryCapacity()).isNull();
+    }
+
+    @Test
+    void testInvalidRowsAreReported() throws Exception {
+        String csv =
+            HEADER +
+            "1;short;;200;90;IDLE\n" +
+            "2;valid serial;;;90;IDLE\n" +
+            "3;valid serial;;heavy;90;IDLE\n" +
+            "4;valid serial;;600;90;IDLE\n" +
+            "5;valid serial;;100;90;IDLE\n";
+
+        DroneImportReportDTO report = droneImportService.importDrones(new StringReader(csv), DroneImportService.Format.CSV);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(4);
+        assertThat(report.getErrors()).extracting("line").containsExactly(2L, 3L, 4L, 5L);
+        assertThat(report.getErrors())
+            .extracting("message")
+            .containsExactly(
+                "serialNumber criteria not met",
+                "weightLimit is required",
+                "Invalid weight_limit: heavy",
+                "weightLimit must be less than or equal to 500"
+            );
+    }
+
+    @Test
+    void testQuotedCsvValues() throws Exception {
+        String csv =
+            "id,serial_number,weight_limit,battery_capacity\n" +
+            "1,\"Loan, \"\"practical\"\"\",200,90\n" +
+            "2,\"valid serial\",\"300\",\n" +
+            "3,\"unterminated serial,300,90\n";
+
+        DroneImportReportDTO report = droneImportService.importDrones(new StringReader(csv), DroneImportService.Format.CSV);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(inserted).extracting(Drone::getSerialNumber).containsExactly("Loan, \"practical\"", "valid serial");
+        assertThat(inserted).extracting(Drone::getWeightLimit).containsExactly(200L, 300L);
+        assertThat(report.getErrors()).extracting("line").containsExactly(4L);
+        assertThat(report.getErrors()).extracting("message").containsExactly("Unterminated quoted value");
+    }
+
+    @Test
+    void testHeaderWithoutRequiredColumnsIsRejected() throws Exception {
+        String csv = "id;serial_number;model\n1;valid serial;Lightweight\n";
+
+        DroneImportReportDTO report = droneImportService.importDrones(new StringReader(csv), DroneImportService.Format.CSV);
+
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getErrors()).extracting("line").containsExactly(1L);
+        verify(droneRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void testFailedChunkRejectsItsRows() throws Exception {
+        doThrow(new DataIntegrityViolationException("duplicate")).when(droneRepository).insertAll(anyList());
+        String csv = HEADER + "1;valid serial;;100;90;IDLE\n" + "2;other serial;;100;90;IDLE\n";
+
+        DroneImportReportDTO report = droneImportService.importDrones(new StringReader(csv), DroneImportService.Format.CSV);
+
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting("message").containsOnly("Insert failed: duplicate");
+    }
+
+    @Test
+    void testFailedChunkOnlyRejectsFailingRows() throws Exception {
+        droneImportService =
+            new DroneImportService(
+                droneRepository,
+                fleetStateIndex,
+                mock(BatteryLevelCache.class),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                mock(PlatformTransactionManager.class),
+                4
+            );
+        AtomicLong sequence = new AtomicLong(1000);
+        doAnswer(invocation -> {
+                List<Drone> drones = invocation.getArgument(0);
+                drones.forEach(drone -> assertThat(drone.getId()).isNull());
+                drones.forEach(drone -> drone.setId(sequence.getAndIncrement()));
+                if (drones.stream().anyMatch(drone -> drone.getSerialNumber().equals("duplicate serial"))) {
+                    throw new DataIntegrityViolationException("duplicate");
+                }
+                inserted.addAll(drones);
+                return null;
+            })
+            .when(droneRepository)
+            .insertAll(anyList());
+        String csv =
+            HEADER +
+            "1;valid serial;;100;90;IDLE\n" +
+            "2;duplicate serial;;100;90;IDLE\n" +
+            "3;other serial;;100;90;IDLE\n" +
+            "4;last serial;;100;90;IDLE\n";
+
+        DroneImportReportDTO report = droneImportService.importDrones(new StringReader(csv), DroneImportService.Format.CSV);
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting("line").containsExactly(3L);
+        assertThat(inserted).extracting(Drone::getSerialNumber).containsExactly("valid serial", "other serial", "last serial");
+        // the chunk, its first half, then each row of that half
+        verify(droneRepository, times(5)).insertAll(anyList());
+    }
+
+    @Test
+    void testNdjsonRows() throws Exception {
+        String ndjson =
+            "{\"id\":7,\"serialNumber\":\"valid serial\",\"weightLimit\":350,\"state\":\"LOADED\"}\n" +
+            "{\"serialNumber\":\"valid serial\"\n";
+
+        DroneImportReportDTO report = droneImportService.importDrones(new StringReader(ndjson), DroneImportService.Format.NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(inserted).extracting(Drone::getId).containsExactly(1000L);
+        assertThat(inserted).extracting(Drone::getModel).containsExactly(Model.Cruiserweight);
+        assertThat(inserted).extracting(Drone::getState).containsExactly(State.IDLE);
+        assertThat(report.getErrors()).extracting("line").containsExactly(2L);
+    }
+}
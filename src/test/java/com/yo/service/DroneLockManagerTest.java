@@ -0,0 +1,134 @@
+package com.yo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.yo.management.DroneLockMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+class DroneLockManagerTest {
+
+    private MeterRegistry meterRegistry;
+
+    private DroneLockManager droneLockManager;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        droneLockManager = new DroneLockManager(new DroneLockMetersService(meterRegistry), Duration.ofMillis(200));
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testOperationsOnTheSameDroneAreSerialized() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(
+                executor.submit(() ->
+                    droneLockManager.withLock(
+                        1L,
+                        () -> {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            sleep(5);
+                            return running.decrementAndGet();
+                        }
+                    )
+                )
+            );
+        }
+        for (Future<Integer> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxRunning).hasValue(1);
+        assertThat(droneLockManager.size()).isZero();
+        assertThat(meterRegistry.get("drone.lock.wait").tag("outcome", "acquired").timer().count()).isPositive();
+        assertThat(meterRegistry.get("drone.lock.waiting").gauge().value()).isZero();
+    }
+
+    @Test
+    void testOperationsOnDifferentDronesRunInParallel() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        Future<Boolean> first = executor.submit(() -> droneLockManager.withLock(1L, () -> arriveAndAwait(bothRunning)));
+        Future<Boolean> second = executor.submit(() -> droneLockManager.withLock(2L, () -> arriveAndAwait(bothRunning)));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(droneLockManager.size()).isZero();
+    }
+
+    @Test
+    void testBusyDroneIsRejectedAfterTheTimeout() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> holder = executor.submit(() ->
+            droneLockManager.withLock(
+                1L,
+                () -> {
+                    locked.countDown();
+                    return await(release);
+                }
+            )
+        );
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> droneLockManager.withLock(1L, () -> true)).isInstanceOf(CannotAcquireLockException.class);
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(droneLockManager.size()).isZero();
+        assertThat(meterRegistry.get("drone.lock.wait").tag("outcome", "timed-out").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("drone.lock.queue-depth").summary().max()).isEqualTo(1);
+    }
+
+    @Test
+    void testLockIsReentrant() {
+        assertThat(droneLockManager.withLock(1L, () -> droneLockManager.withLock(1L, () -> true))).isTrue();
+        assertThat(droneLockManager.size()).isZero();
+    }
+
+    private static boolean arriveAndAwait(CountDownLatch latch) {
+        latch.countDown();
+        return await(latch);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
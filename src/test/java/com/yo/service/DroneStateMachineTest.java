@@ -0,0 +1,116 @@
+package com.yo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yo.domain.Drone;
+import com.yo.domain.enumeration.State;
+import com.yo.repository.DroneRepository;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DroneStateMachineTest {
+
+    private DroneRepository droneRepository;
+
+    private FleetStateIndex fleetStateIndex;
+
+    private DroneStateMachine droneStateMachine;
+
+    @BeforeEach
+    public void setup() {
+        droneRepository = mock(DroneRepository.class);
+        fleetStateIndex = mock(FleetStateIndex.class);
+        droneStateMachine = new DroneStateMachine(droneRepository, fleetStateIndex);
+    }
+
+    @Test
+    void testTransitionTable() {
+        assertThat(DroneStateMachine.nextStates(State.IDLE)).containsExactly(State.LOADING);
+        assertThat(DroneStateMachine.nextStates(State.LOADING)).containsExactlyInAnyOrder(State.LOADED, State.IDLE);
+        assertThat(DroneStateMachine.nextStates(State.RETURNING)).containsExactly(State.IDLE);
+        assertThat(DroneStateMachine.nextStates(null)).isEmpty();
+
+        assertThatThrownBy(() -> DroneStateMachine.checkTransition(State.IDLE, State.DELIVERING, 100))
+            .isInstanceOf(DroneStateException.class)
+            .extracting("errorKey")
+            .isEqualTo("transitioninvalid");
+    }
+
+    @Test
+    void testLoadingRequiresBattery() {
+        DroneStateMachine.checkTransition(State.IDLE, State.LOADING, 25);
+
+        assertThatThrownBy(() -> DroneStateMachine.checkTransition(State.IDLE, State.LOADING, 24))
+            .isInstanceOf(DroneStateException.class)
+            .extracting("errorKey")
+            .isEqualTo("batterylow");
+        assertThatThrownBy(() -> DroneStateMachine.checkTransition(State.IDLE, State.LOADING, null))
+            .isInstanceOf(DroneStateException.class)
+            .extracting("errorKey")
+            .isEqualTo("batterylow");
+    }
+
+    @Test
+    void testClaimIsConditionalOnStateAndBattery() {
+        Drone drone = new Drone().id(1L).batteryCapacity(80).state(State.LOADING);
+        when(droneRepository.compareAndSetState(1L, State.IDLE, State.LOADING, 25)).thenReturn(1);
+        when(droneRepository.findById(1L)).thenReturn(Optional.of(drone));
+
+        assertThat(droneStateMachine.transition(1L, State.IDLE, State.LOADING)).isSameAs(drone);
+        verify(fleetStateIndex).refresh(drone);
+    }
+
+    @Test
+    void testLostClaimIsAConflict() {
+        when(droneRepository.compareAndSetState(1L, State.IDLE, State.LOADING, 25)).thenReturn(0);
+        when(droneRepository.findById(1L)).thenReturn(Optional.of(new Drone().id(1L).batteryCapacity(80).state(State.LOADING)));
+
+        assertThatThrownBy(() -> droneStateMachine.transition(1L, State.IDLE, State.LOADING))
+            .isInstanceOf(DroneStateException.class)
+            .matches(e -> ((DroneStateException) e).isConflict());
+        verify(fleetStateIndex, never()).refresh(any());
+    }
+
+    @Test
+    void testClaimWithLowBatteryIsRejected() {
+        when(droneRepository.compareAndSetState(1L, State.IDLE, State.LOADING, 25)).thenReturn(0);
+        when(droneRepository.findById(1L)).thenReturn(Optional.of(new Drone().id(1L).batteryCapacity(10).state(State.IDLE)));
+
+        assertThatThrownBy(() -> droneStateMachine.transition(1L, State.IDLE, State.LOADING))
+            .isInstanceOf(DroneStateException.class)
+            .extracting("errorKey")
+            .isEqualTo("batterylow");
+    }
+
+    @Test
+    void testUpdatedDroneUsesItsNewBattery() {
+        Drone drone = new Drone().id(1L).batteryCapacity(80).state(State.IDLE);
+        when(droneRepository.compareAndSetState(1L, State.IDLE, State.LOADING, 0)).thenReturn(1);
+
+        droneStateMachine.transition(drone, State.LOADING);
+        assertThat(drone.getState()).isEqualTo(State.LOADING);
+
+        droneStateMachine.transition(drone, null);
+        droneStateMachine.transition(drone, State.LOADING);
+        verify(droneRepository).compareAndSetState(anyLong(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testUpdatedDroneMovesPastTheVersionOfTheStateUpdate() {
+        Drone drone = new Drone().id(1L).batteryCapacity(80).state(State.IDLE).version(3L);
+        when(droneRepository.compareAndSetState(1L, State.IDLE, State.LOADING, 0)).thenReturn(1);
+
+        droneStateMachine.transition(drone, State.LOADING);
+
+        assertThat(drone.getVersion()).isEqualTo(4L);
+    }
+}
@@ -0,0 +1,143 @@
+package com.yo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yo.domain.Drone;
+import com.yo.domain.enumeration.State;
+import com.yo.repository.DroneRepository;
+import com.yo.repository.DroneSummary;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class FleetStateIndexTest {
+
+    private DroneRepository droneRepository;
+
+    private FleetStateIndex fleetStateIndex;
+
+    private Drone drone;
+
+    @BeforeEach
+    public void setup() {
+        droneRepository = mock(DroneRepository.class);
+        fleetStateIndex = new FleetStateIndex(droneRepository, mock(PlatformTransactionManager.class));
+
+        drone = new Drone().id(1L).weightLimit(300L).batteryCapacity(80).state(State.IDLE).loadedWeight(100L);
+        DroneSummary summary = summaryOf(drone);
+        when(droneRepository.findSummaryById(1L)).thenReturn(Optional.of(summary));
+    }
+
+    @Test
+    void testEntryIsHydratedOnce() {
+        assertThat(fleetStateIndex.find(1L)).isPresent();
+        assertThat(fleetStateIndex.find(1L).get().getSpareCapacity()).isEqualTo(200L);
+
+        verify(droneRepository, times(1)).findSummaryById(1L);
+    }
+
+    @Test
+    void testReserveWithinCapacity() {
+        fleetStateIndex.reserve(1L, 150L);
+        fleetStateIndex.reserve(1L, 50L);
+
+        assertThat(fleetStateIndex.find(1L).get().getLoadedWeight()).isEqualTo(300L);
+    }
+
+    @Test
+    void testReserveOverCapacityIsRejected() {
+        fleetStateIndex.reserve(1L, 150L);
+
+        assertThatThrownBy(() -> fleetStateIndex.reserve(1L, 51L))
+            .isInstanceOf(DroneLoadException.class)
+            .extracting("errorKey")
+            .isEqualTo("weightlimitexceeded");
+        assertThat(fleetStateIndex.find(1L).get().getLoadedWeight()).isEqualTo(250L);
+    }
+
+    @Test
+    void testReserveOnUnknownDroneIsRejected() {
+        when(droneRepository.findSummaryById(2L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> fleetStateIndex.reserve(2L, 1L))
+            .isInstanceOf(DroneLoadException.class)
+            .extracting("errorKey")
+            .isEqualTo("idnotfound");
+    }
+
+    @Test
+    void testEvictedEntryIsReloaded() {
+        fleetStateIndex.find(1L);
+        fleetStateIndex.evict(1L);
+        fleetStateIndex.find(1L);
+
+        verify(droneRepository, times(2)).findSummaryById(1L);
+    }
+
+    @Test
+    void testRolledBackEvictionKeepsEntry() {
+        fleetStateIndex.find(1L);
+        when(droneRepository.findSummaryById(1L)).thenReturn(Optional.empty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            fleetStateIndex.evict(1L);
+            TransactionSynchronizationManager
+                .getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(fleetStateIndex.findAvailable(State.IDLE, 0, 0L, null)).extracting("id").containsExactly(1L);
+        verify(droneRepository, times(1)).findSummaryById(1L);
+    }
+
+    @Test
+    void testCommittedEvictionOfDeletedDroneRemovesEntry() {
+        fleetStateIndex.find(1L);
+        when(droneRepository.findSummaryById(1L)).thenReturn(Optional.empty());
+
+        fleetStateIndex.evict(1L);
+
+        assertThat(fleetStateIndex.findAvailable(State.IDLE, 0, 0L, null)).isEmpty();
+        verify(droneRepository, times(2)).findSummaryById(1L);
+    }
+
+    @Test
+    void testFindAvailable() {
+        Drone lowBattery = new Drone().id(2L).weightLimit(300L).batteryCapacity(20).state(State.IDLE).loadedWeight(0L);
+        Drone loading = new Drone().id(3L).weightLimit(300L).batteryCapacity(90).state(State.LOADING).loadedWeight(0L);
+        DroneSummary[] summaries = Stream.of(drone, lowBattery, loading).map(FleetStateIndexTest::summaryOf).toArray(DroneSummary[]::new);
+        when(droneRepository.streamAllSummariesBy()).thenReturn(Stream.of(summaries));
+        fleetStateIndex.loadFleet();
+
+        assertThat(fleetStateIndex.findAvailable(State.IDLE, 25, 0L, null)).extracting("id").containsExactly(1L);
+        assertThat(fleetStateIndex.findAvailable(State.IDLE, 0, 0L, null)).extracting("id").containsExactlyInAnyOrder(1L, 2L);
+        assertThat(fleetStateIndex.findAvailable(State.IDLE, 25, 201L, null)).isEmpty();
+
+        fleetStateIndex.reserve(1L, 150L);
+        assertThat(fleetStateIndex.findAvailable(State.IDLE, 25, 100L, null)).isEmpty();
+        assertThat(fleetStateIndex.findAvailable(State.IDLE, 25, 50L, null)).extracting("spareCapacity").containsExactly(50L);
+    }
+
+    private static DroneSummary summaryOf(Drone drone) {
+        DroneSummary summary = mock(DroneSummary.class);
+        when(summary.getId()).thenReturn(drone.getId());
+        when(summary.getModel()).thenReturn(drone.getModel());
+        when(summary.getWeightLimit()).thenReturn(drone.getWeightLimit());
+        when(summary.getBatteryCapacity()).thenReturn(drone.getBatteryCapacity());
+        when(summary.getState()).thenReturn(drone.getState());
+        when(summary.getLoadedWeight()).thenReturn(drone.getLoadedWeight());
+        return summary;
+    }
+}
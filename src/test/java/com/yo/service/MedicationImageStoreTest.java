@@ -0,0 +1,99 @@
+package com.yo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yo.config.ApplicationProperties;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+class MedicationImageStoreTest {
+
+    // SHA-256 of "image"
+    private static final String IMAGE_HASH = "6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d";
+
+    @TempDir
+    Path directory;
+
+    private MedicationImageStore medicationImageStore;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMedicationImages().setDirectory(directory.toString());
+        medicationImageStore = new MedicationImageStore(applicationProperties);
+    }
+
+    @Test
+    void testImageIsStoredUnderItsHash() throws IOException {
+        String hash = medicationImageStore.store(image("image"));
+
+        assertThat(hash).isEqualTo(IMAGE_HASH);
+        assertThat(medicationImageStore.find(hash)).hasValueSatisfying(file -> assertThat(file).hasContent("image"));
+    }
+
+    @Test
+    void testSameImageIsStoredOnce() throws IOException {
+        String hash = medicationImageStore.store(image("image"));
+        String otherHash = medicationImageStore.store(image("image"));
+        medicationImageStore.store(image("other image"));
+
+        assertThat(otherHash).isEqualTo(hash);
+        try (Stream<Path> files = Files.walk(directory)) {
+            // no temporary file is left behind
+            assertThat(files.filter(Files::isRegularFile)).hasSize(2);
+        }
+    }
+
+    @Test
+    void testImageIsNotFoundWithoutAValidHash() throws IOException {
+        medicationImageStore.store(image("image"));
+
+        assertThat(medicationImageStore.find(null)).isEmpty();
+        assertThat(medicationImageStore.find("AAAAAAAAAA")).isEmpty();
+        assertThat(medicationImageStore.find("../" + IMAGE_HASH.substring(3))).isEmpty();
+        assertThat(medicationImageStore.find(IMAGE_HASH.toUpperCase())).isEmpty();
+        assertThat(medicationImageStore.find(IMAGE_HASH.replace('6', '7'))).isEmpty();
+    }
+
+    @Test
+    void testTypeIsReadFromTheMagicNumber() throws IOException {
+        assertThat(medicationImageStore.typeOf(image("\u0089PNG\r\n\u001a\n...", StandardCharsets.ISO_8859_1))).contains(MediaType.IMAGE_PNG);
+        assertThat(medicationImageStore.typeOf(image("\u00ff\u00d8\u00ff\u00e0...", StandardCharsets.ISO_8859_1))).contains(MediaType.IMAGE_JPEG);
+        assertThat(medicationImageStore.typeOf(image("GIF87a..."))).contains(MediaType.IMAGE_GIF);
+        assertThat(medicationImageStore.typeOf(image("GIF89a..."))).contains(MediaType.IMAGE_GIF);
+        assertThat(medicationImageStore.typeOf(image("RIFF\u0000\u0000\u0000\u0000WEBPVP8 "))).contains(MedicationImageStore.IMAGE_WEBP);
+        assertThat(medicationImageStore.typeOf(image("RIFF\u0000\u0000\u0000\u0000WAVEfmt "))).isEmpty();
+        assertThat(medicationImageStore.typeOf(image("<svg xmlns=\"http://www.w3.org/2000/svg\"/>"))).isEmpty();
+        assertThat(medicationImageStore.typeOf(image("<html></html>"))).isEmpty();
+        assertThat(medicationImageStore.typeOf(image(""))).isEmpty();
+    }
+
+    @Test
+    void testTypeIsReadWithoutConsumingTheImage() throws IOException {
+        BufferedInputStream image = new BufferedInputStream(image("GIF89a content"));
+
+        assertThat(medicationImageStore.typeOf(image)).contains(MediaType.IMAGE_GIF);
+
+        String hash = medicationImageStore.store(image);
+        assertThat(medicationImageStore.find(hash)).hasValueSatisfying(file -> assertThat(file).hasContent("GIF89a content"));
+        assertThat(medicationImageStore.typeOf(medicationImageStore.find(hash).orElseThrow())).contains(MediaType.IMAGE_GIF);
+    }
+
+    private static ByteArrayInputStream image(String content) {
+        return image(content, StandardCharsets.UTF_8);
+    }
+
+    private static ByteArrayInputStream image(String content, Charset charset) {
+        return new ByteArrayInputStream(content.getBytes(charset));
+    }
+}
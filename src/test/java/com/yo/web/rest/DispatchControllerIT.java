@@ -0,0 +1,271 @@
+package com.yo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.yo.IntegrationTest;
+import com.yo.domain.Drone;
+import com.yo.domain.Medication;
+import com.yo.repository.DroneRepository;
+import com.yo.repository.MedicationRepository;
+import com.yo.service.DroneLoadException;
+import com.yo.service.DroneService;
+import com.yo.service.FleetStateIndex;
+import com.yo.service.MedicationService;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the loading of the {@link DispatchController} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class DispatchControllerIT {
+
+    private static final Long WEIGHT_LIMIT = 500L;
+
+    private static final String LOAD_API_URL = "/api/drones/load/{id}";
+
+    private static final String BATCH_API_URL = "/api/drones/load/{id}/batch";
+
+    private static final String BATTERY_API_URL = "/api/drones/battery";
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private DroneService droneService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private FleetStateIndex fleetStateIndex;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restDispatchMockMvc;
+
+    private Drone drone;
+
+    @BeforeEach
+    public void initTest() {
+        drone = DroneResourceIT.createEntity(em).weightLimit(WEIGHT_LIMIT).batteryCapacity(100);
+    }
+
+    @Test
+    @Transactional
+    void loadDrone() throws Exception {
+        droneRepository.saveAndFlush(drone);
+        long databaseSizeBeforeLoad = medicationRepository.count();
+
+        restDispatchMockMvc
+            .perform(
+                put(LOAD_API_URL, drone.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(medication(100)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(drone.getId().intValue()))
+            .andExpect(jsonPath("$.loadedWeight").value(100))
+            .andExpect(jsonPath("$.version").isNumber())
+            .andExpect(jsonPath("$.medications").doesNotExist());
+
+        // the conditional update refreshes the managed drone instead of detaching every entity
+        assertThat(em.contains(drone)).isTrue();
+        assertThat(drone.getLoadedWeight()).isEqualTo(100L);
+        em.flush();
+        em.clear();
+        assertThat(medicationRepository.count()).isEqualTo(databaseSizeBeforeLoad + 1);
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isEqualTo(100L);
+    }
+
+    @Test
+    @Transactional
+    void loadDroneOverWeightLimitRejectedByConditionalUpdate() throws Exception {
+        droneRepository.saveAndFlush(drone);
+        long databaseSizeBeforeLoad = medicationRepository.count();
+        // the index still sees an empty drone, which another node has loaded in the meantime
+        fleetStateIndex.find(drone.getId());
+        em.createNativeQuery("update drone set loaded_weight = 400 where id = :id").setParameter("id", drone.getId()).executeUpdate();
+
+        restDispatchMockMvc
+            .perform(
+                put(LOAD_API_URL, drone.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(medication(200)))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.weightlimitexceeded"));
+
+        em.flush();
+        em.clear();
+        assertThat(medicationRepository.count()).isEqualTo(databaseSizeBeforeLoad);
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isEqualTo(400L);
+    }
+
+    @Test
+    @Transactional
+    void loadDroneWithExistingId() throws Exception {
+        droneRepository.saveAndFlush(drone);
+        long databaseSizeBeforeLoad = medicationRepository.count();
+        Medication medication = medication(100);
+        medication.setId(1L);
+
+        restDispatchMockMvc
+            .perform(
+                put(LOAD_API_URL, drone.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(medication))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.idexists"));
+
+        em.flush();
+        em.clear();
+        assertThat(medicationRepository.count()).isEqualTo(databaseSizeBeforeLoad);
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void loadDroneBatch() throws Exception {
+        droneRepository.saveAndFlush(drone);
+        long databaseSizeBeforeLoad = medicationRepository.count();
+
+        restDispatchMockMvc
+            .perform(
+                post(BATCH_API_URL, drone.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(medication(100), medication(200))))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(drone.getId().intValue()))
+            .andExpect(jsonPath("$.loadedWeight").value(300))
+            .andExpect(jsonPath("$.version").isNumber())
+            .andExpect(jsonPath("$.medications").doesNotExist());
+
+        em.flush();
+        em.clear();
+        assertThat(medicationRepository.count()).isEqualTo(databaseSizeBeforeLoad + 2);
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isEqualTo(300L);
+    }
+
+    @Test
+    @Transactional
+    void loadDroneBatchOverWeightLimit() throws Exception {
+        droneRepository.saveAndFlush(drone);
+        long databaseSizeBeforeLoad = medicationRepository.count();
+
+        // each medication fits on its own, not both together
+        restDispatchMockMvc
+            .perform(
+                post(BATCH_API_URL, drone.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(medication(300), medication(300))))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.weightlimitexceeded"));
+
+        em.flush();
+        em.clear();
+        assertThat(medicationRepository.count()).isEqualTo(databaseSizeBeforeLoad);
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void loadDroneBatchWithExistingId() throws Exception {
+        droneRepository.saveAndFlush(drone);
+        Medication medication = medication(100);
+        medication.setId(1L);
+
+        restDispatchMockMvc
+            .perform(
+                post(BATCH_API_URL, drone.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(medication)))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getBatteryLevelsOfTooManyDrones() throws Exception {
+        String ids = LongStream
+            .rangeClosed(1, DispatchController.MAX_BATTERY_LEVEL_IDS + 1)
+            .mapToObj(String::valueOf)
+            .collect(Collectors.joining(","));
+
+        restDispatchMockMvc
+            .perform(get(BATTERY_API_URL).param("ids", ids))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.toomanyids"));
+    }
+
+    @Test
+    @Transactional
+    void loadMedications() {
+        droneRepository.saveAndFlush(drone);
+
+        List<Medication> medications = List.of(medication(100), medication(200));
+        Drone result = droneService.loadMedications(drone.getId(), medications);
+
+        assertThat(result.getId()).isEqualTo(drone.getId());
+        assertThat(result.getLoadedWeight()).isEqualTo(300L);
+        assertThat(medications).allSatisfy(medication -> assertThat(medication.getId()).isNotNull());
+        em.flush();
+        em.clear();
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isEqualTo(300L);
+    }
+
+    @Test
+    @Transactional
+    void saveAllOverWeightLimit() {
+        droneRepository.saveAndFlush(drone);
+        long databaseSizeBeforeLoad = medicationRepository.count();
+        List<Medication> medications = List.of(medication(300).drone(drone), medication(300).drone(drone));
+
+        assertThatThrownBy(() -> medicationService.saveAll(medications)).isInstanceOf(DroneLoadException.class);
+
+        em.flush();
+        em.clear();
+        assertThat(medicationRepository.count()).isEqualTo(databaseSizeBeforeLoad);
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void saveExistingMedicationDoesNotLoadItTwice() {
+        droneRepository.saveAndFlush(drone);
+        Medication medication = medicationService.save(medication(100).drone(drone));
+        em.flush();
+
+        medicationService.save(medication.name("renamed"));
+
+        em.flush();
+        em.clear();
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isEqualTo(100L);
+    }
+
+    private static Medication medication(int weight) {
+        return MedicationResourceIT.createEntity(null).weght(weight);
+    }
+}
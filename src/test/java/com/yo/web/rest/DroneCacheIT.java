@@ -0,0 +1,103 @@
+package com.yo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.yo.IntegrationTest;
+import com.yo.domain.Drone;
+import com.yo.repository.DroneRepository;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the second-level cache of the {@link Drone} entity, which the conditional updates of a drone
+ * evict without going through the entity.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+class DroneCacheIT {
+
+    private static final String LOAD_API_URL = "/api/drones/load/{id}";
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MockMvc restDispatchMockMvc;
+
+    private Statistics statistics;
+
+    private Drone drone;
+
+    @BeforeEach
+    public void initTest() {
+        drone = droneRepository.saveAndFlush(DroneResourceIT.createEntity(null).weightLimit(500L).batteryCapacity(100));
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from medication where drone_id = ?", drone.getId());
+            droneRepository.deleteById(drone.getId());
+        });
+    }
+
+    @Test
+    void loadEvictsTheCachedDrone() throws Exception {
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Drone.class.getName());
+
+        // the first read misses and caches the drone, the second one is answered by the cache
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isZero();
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isZero();
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(1);
+
+        restDispatchMockMvc
+            .perform(
+                put(LOAD_API_URL, drone.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(MedicationResourceIT.createEntity(null).weght(100)))
+            )
+            .andExpect(status().isOk());
+
+        // the load evicted the drone, which is read again from the database, then cached again
+        long hitsBeforeRead = region.getHitCount();
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isEqualTo(100L);
+        assertThat(region.getHitCount()).isEqualTo(hitsBeforeRead);
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight()).isEqualTo(100L);
+        assertThat(region.getHitCount()).isEqualTo(hitsBeforeRead + 1);
+    }
+}
@@ -1,7 +1,11 @@
 package com.yo.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -10,10 +14,13 @@ import com.yo.domain.Drone;
 import com.yo.domain.enumeration.Model;
 import com.yo.domain.enumeration.State;
 import com.yo.repository.DroneRepository;
+import com.yo.web.rest.util.KeysetPaginationUtil;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +28,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -41,7 +49,7 @@ class DroneResourceIT {
     private static final Long UPDATED_WEIGHT_LIMIT = 2L;
 
     private static final Integer DEFAULT_BATTERY_CAPACITY = 1;
-    private static final Integer UPDATED_BATTERY_CAPACITY = 2;
+    private static final Integer UPDATED_BATTERY_CAPACITY = 80;
 
     private static final State DEFAULT_STATE = State.IDLE;
     private static final State UPDATED_STATE = State.LOADING;
@@ -157,6 +165,47 @@ class DroneResourceIT {
             .andExpect(jsonPath("$.[*].state").value(hasItem(DEFAULT_STATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllDronesWritesNullForMedicationsNotFetched() throws Exception {
+        // Initialize the database
+        droneRepository.saveAndFlush(drone);
+        em.clear();
+
+        // Get all the droneList, without their medications
+        restDroneMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(drone.getId().intValue()))
+            .andExpect(jsonPath("$.[0]").value(hasEntry(equalTo("medications"), nullValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllDronesAfterCursor() throws Exception {
+        // Initialize the database
+        droneRepository.saveAndFlush(drone);
+        Drone other = createEntity(em).serialNumber(UPDATED_SERIAL_NUMBER);
+        droneRepository.saveAndFlush(other);
+
+        // The cursor of the drone before them starts the page at the first of them
+        String cursor = KeysetPaginationUtil.encodeCursor(drone.getId() - 1);
+        restDroneMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1&withCount=true", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(drone.getId().intValue())))
+            .andExpect(header().string(KeysetPaginationUtil.HEADER_NEXT_CURSOR, KeysetPaginationUtil.encodeCursor(drone.getId())))
+            .andExpect(header().exists(KeysetPaginationUtil.HEADER_X_TOTAL_COUNT));
+
+        restDroneMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", KeysetPaginationUtil.encodeCursor(drone.getId())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(other.getId().intValue())))
+            .andExpect(header().doesNotExist(KeysetPaginationUtil.HEADER_X_TOTAL_COUNT));
+
+        restDroneMockMvc.perform(get(ENTITY_API_URL + "?cursor=invalid")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getDrone() throws Exception {
@@ -176,6 +225,140 @@ class DroneResourceIT {
             .andExpect(jsonPath("$.state").value(DEFAULT_STATE.toString()));
     }
 
+    @Test
+    @Transactional
+    void getAllDroneSummaries() throws Exception {
+        // Initialize the database
+        droneRepository.saveAndFlush(drone);
+
+        // Get all the drone summaries
+        restDroneMockMvc
+            .perform(get(ENTITY_API_URL + "/summaries?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(drone.getId().intValue())))
+            .andExpect(jsonPath("$.[*].serialNumber").value(hasItem(DEFAULT_SERIAL_NUMBER)))
+            .andExpect(jsonPath("$.[*].model").value(hasItem(DEFAULT_MODEL.toString())))
+            .andExpect(jsonPath("$.[*].weightLimit").value(hasItem(DEFAULT_WEIGHT_LIMIT.intValue())))
+            .andExpect(jsonPath("$.[*].batteryCapacity").value(hasItem(DEFAULT_BATTERY_CAPACITY)))
+            .andExpect(jsonPath("$.[*].state").value(hasItem(DEFAULT_STATE.toString())));
+    }
+
+    @Test
+    void streamDroneSummaries() throws Exception {
+        // Initialize the database, committed as the response is written by another thread
+        droneRepository.saveAndFlush(drone);
+
+        try {
+            // Stream all the drone summaries
+            MvcResult mvcResult = restDroneMockMvc
+                .perform(get(ENTITY_API_URL + "/summaries/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restDroneMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(drone.getId().intValue())))
+                .andExpect(jsonPath("$.[*].serialNumber").value(hasItem(DEFAULT_SERIAL_NUMBER)))
+                .andExpect(jsonPath("$.[*].state").value(hasItem(DEFAULT_STATE.toString())));
+        } finally {
+            droneRepository.deleteById(drone.getId());
+        }
+    }
+
+    @Test
+    void exportDrones() throws Exception {
+        // Initialize the database, committed as the response is written by another thread
+        droneRepository.saveAndFlush(drone);
+
+        try {
+            // Export all the drones
+            MvcResult mvcResult = restDroneMockMvc
+                .perform(get(ENTITY_API_URL + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            String body = restDroneMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+            assertThat(body.split("\n"))
+                .anySatisfy(line ->
+                    assertThat(line)
+                        .startsWith("{\"id\":" + drone.getId() + ",")
+                        .contains("\"serialNumber\":\"" + DEFAULT_SERIAL_NUMBER + "\"")
+                        .contains("\"medications\":[]")
+                );
+        } finally {
+            droneRepository.deleteById(drone.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllDronesWithEagerRelationshipsUsesFixedStatementCount() throws Exception {
+        // Initialize the database
+        for (int i = 0; i < 3; i++) {
+            Drone loadedDrone = createEntity(em);
+            em.persist(loadedDrone);
+            for (int j = 0; j < 2; j++) {
+                em.persist(MedicationResourceIT.createEntity(em).drone(loadedDrone));
+            }
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = enableStatistics();
+        try {
+            restDroneMockMvc
+                .perform(get(ENTITY_API_URL + "?eagerload=true&sort=id,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].medications.length()").value(2))
+                .andExpect(jsonPath("$.[2].medications.length()").value(2));
+
+            // the page, its count and a single fetch join for the medications of the whole page
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getDroneWithMedicationsUsesFixedStatementCount() throws Exception {
+        // Initialize the database
+        em.persist(drone);
+        for (int j = 0; j < 3; j++) {
+            em.persist(MedicationResourceIT.createEntity(em).drone(drone));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = enableStatistics();
+        try {
+            restDroneMockMvc
+                .perform(get(ENTITY_API_URL_ID, drone.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.medications.length()").value(3));
+
+            // the drone and a single fetch join for its medications
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private Statistics enableStatistics() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
     @Test
     @Transactional
     void getNonExistingDrone() throws Exception {
@@ -221,6 +404,40 @@ class DroneResourceIT {
         assertThat(testDrone.getState()).isEqualTo(UPDATED_STATE);
     }
 
+    @Test
+    @Transactional
+    void putDroneWithStaleVersion() throws Exception {
+        // Initialize the database, then update the drone once more
+        droneRepository.saveAndFlush(drone);
+        drone.setBatteryCapacity(UPDATED_BATTERY_CAPACITY);
+        droneRepository.saveAndFlush(drone);
+
+        // Update the drone from the version read before the last update
+        Drone updatedDrone = new Drone()
+            .serialNumber(UPDATED_SERIAL_NUMBER)
+            .model(DEFAULT_MODEL)
+            .weightLimit(DEFAULT_WEIGHT_LIMIT)
+            .batteryCapacity(DEFAULT_BATTERY_CAPACITY)
+            .state(DEFAULT_STATE)
+            .version(drone.getVersion() - 1);
+        updatedDrone.setId(drone.getId());
+
+        restDroneMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedDrone.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedDrone))
+            )
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.concurrencyFailure"));
+
+        // Validate the Drone in the database
+        em.clear();
+        Drone testDrone = droneRepository.findById(drone.getId()).orElseThrow();
+        assertThat(testDrone.getSerialNumber()).isEqualTo(DEFAULT_SERIAL_NUMBER);
+        assertThat(testDrone.getVersion()).isEqualTo(drone.getVersion());
+    }
+
     @Test
     @Transactional
     void putNonExistingDrone() throws Exception {
@@ -348,6 +565,34 @@ class DroneResourceIT {
         assertThat(testDrone.getState()).isEqualTo(UPDATED_STATE);
     }
 
+    @Test
+    @Transactional
+    void patchDroneWithStaleVersion() throws Exception {
+        // Initialize the database, then update the drone once more
+        droneRepository.saveAndFlush(drone);
+        drone.setBatteryCapacity(UPDATED_BATTERY_CAPACITY);
+        droneRepository.saveAndFlush(drone);
+
+        // Update the drone using partial update, from the version read before the last update
+        Drone partialUpdatedDrone = new Drone().serialNumber(UPDATED_SERIAL_NUMBER).version(drone.getVersion() - 1);
+        partialUpdatedDrone.setId(drone.getId());
+
+        restDroneMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedDrone.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedDrone))
+            )
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.concurrencyFailure"));
+
+        // Validate the Drone in the database
+        em.clear();
+        Drone testDrone = droneRepository.findById(drone.getId()).orElseThrow();
+        assertThat(testDrone.getSerialNumber()).isEqualTo(DEFAULT_SERIAL_NUMBER);
+        assertThat(testDrone.getVersion()).isEqualTo(drone.getVersion());
+    }
+
     @Test
     @Transactional
     void patchNonExistingDrone() throws Exception {
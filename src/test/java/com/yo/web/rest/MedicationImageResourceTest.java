@@ -0,0 +1,225 @@
+package com.yo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.yo.config.ApplicationProperties;
+import com.yo.domain.Medication;
+import com.yo.repository.MedicationRepository;
+import com.yo.service.MedicationImageStore;
+import com.yo.service.MedicationService;
+import com.yo.web.rest.errors.ExceptionTranslator;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class MedicationImageResourceTest {
+
+    // a PNG signature, followed by a few bytes of content
+    private static final byte[] IMAGE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 1, 2, 3, 4, 5, 6, 7 };
+
+    private static final byte[] HTML = "<html><script>alert(document.cookie)</script></html>".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    private MedicationService medicationService;
+
+    private MedicationRepository medicationRepository;
+
+    private MedicationImageStore medicationImageStore;
+
+    private MockMvc restMedicationImageMockMvc;
+
+    @BeforeEach
+    public void setup() {
+        medicationService = mock(MedicationService.class);
+        medicationRepository = mock(MedicationRepository.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMedicationImages().setDirectory(directory.toString());
+        medicationImageStore = new MedicationImageStore(applicationProperties);
+
+        MedicationImageResource medicationImageResource = new MedicationImageResource(
+            medicationService,
+            medicationRepository,
+            medicationImageStore
+        );
+        ReflectionTestUtils.setField(medicationImageResource, "applicationName", "droneApp");
+        restMedicationImageMockMvc =
+            MockMvcBuilders
+                .standaloneSetup(medicationImageResource)
+                .setControllerAdvice(new ExceptionTranslator(new MockEnvironment()))
+                .build();
+    }
+
+    @Test
+    void testUploadImage() throws Exception {
+        when(medicationRepository.existsById(1L)).thenReturn(true);
+        ArgumentCaptor<Medication> update = ArgumentCaptor.forClass(Medication.class);
+        when(medicationService.partialUpdate(update.capture())).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+
+        restMedicationImageMockMvc
+            .perform(multipart("/api/medications/{id}/image", 1L).file(new MockMultipartFile("file", IMAGE)).with(putMethod()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(1))
+            .andExpect(jsonPath("$.image").value(update.getValue().getImage()));
+
+        assertThat(medicationImageStore.find(update.getValue().getImage())).isPresent();
+    }
+
+    @Test
+    void testUploadOtherTypeIsRejected() throws Exception {
+        when(medicationRepository.existsById(1L)).thenReturn(true);
+
+        restMedicationImageMockMvc
+            .perform(multipart("/api/medications/{id}/image", 1L).file(new MockMultipartFile("file", HTML)).with(putMethod()))
+            .andExpect(status().isBadRequest());
+
+        verify(medicationService, never()).partialUpdate(any());
+    }
+
+    @Test
+    void testUploadImageOfUnknownMedication() throws Exception {
+        when(medicationRepository.existsById(1L)).thenReturn(false);
+
+        restMedicationImageMockMvc
+            .perform(multipart("/api/medications/{id}/image", 1L).file(new MockMultipartFile("file", IMAGE)).with(putMethod()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetImage() throws Exception {
+        String hash = storeImageOf(1L);
+
+        restMedicationImageMockMvc
+            .perform(get("/api/medications/{id}/image", 1L))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_PNG))
+            .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, IMAGE.length))
+            .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void testGetStoredFileOfOtherTypeAsAttachment() throws Exception {
+        // stored before the types of the uploads were checked
+        String hash = medicationImageStore.store(new ByteArrayInputStream(HTML));
+        when(medicationService.findOne(1L)).thenReturn(Optional.of(new Medication().id(1L).image(hash)));
+
+        restMedicationImageMockMvc
+            .perform(get("/api/medications/{id}/image", 1L))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment"))
+            .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+            .andExpect(content().bytes(HTML));
+    }
+
+    @Test
+    void testHeadImage() throws Exception {
+        storeImageOf(1L);
+
+        restMedicationImageMockMvc
+            .perform(head("/api/medications/{id}/image", 1L))
+            .andExpect(status().isOk())
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, IMAGE.length))
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void testGetImageNotModified() throws Exception {
+        String hash = storeImageOf(1L);
+
+        restMedicationImageMockMvc
+            .perform(get("/api/medications/{id}/image", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void testGetImageRange() throws Exception {
+        storeImageOf(1L);
+
+        restMedicationImageMockMvc
+            .perform(get("/api/medications/{id}/image", 1L).header(HttpHeaders.RANGE, "bytes=8-11"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 8-11/16"))
+            .andExpect(content().bytes(new byte[] { 0, 1, 2, 3 }));
+
+        restMedicationImageMockMvc
+            .perform(get("/api/medications/{id}/image", 1L).header(HttpHeaders.RANGE, "bytes=-2"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 14-15/16"))
+            .andExpect(content().bytes(new byte[] { 6, 7 }));
+    }
+
+    @Test
+    void testGetImageRangeOfChangedImage() throws Exception {
+        storeImageOf(1L);
+
+        restMedicationImageMockMvc
+            .perform(get("/api/medications/{id}/image", 1L).header(HttpHeaders.RANGE, "bytes=8-11").header(HttpHeaders.IF_RANGE, "\"other\""))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void testGetImageRangeNotSatisfiable() throws Exception {
+        storeImageOf(1L);
+
+        restMedicationImageMockMvc
+            .perform(get("/api/medications/{id}/image", 1L).header(HttpHeaders.RANGE, "bytes=16-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */16"));
+    }
+
+    @Test
+    void testGetImageNotFound() throws Exception {
+        when(medicationService.findOne(1L)).thenReturn(Optional.of(new Medication().id(1L).image("AAAAAAAAAA")));
+        when(medicationService.findOne(2L)).thenReturn(Optional.empty());
+
+        restMedicationImageMockMvc.perform(get("/api/medications/{id}/image", 1L)).andExpect(status().isNotFound());
+        restMedicationImageMockMvc.perform(get("/api/medications/{id}/image", 2L)).andExpect(status().isNotFound());
+    }
+
+    private String storeImageOf(Long id) throws Exception {
+        String hash = medicationImageStore.store(new ByteArrayInputStream(IMAGE));
+        when(medicationService.findOne(id)).thenReturn(Optional.of(new Medication().id(id).image(hash)));
+        return hash;
+    }
+
+    private static RequestPostProcessor putMethod() {
+        return request -> {
+            request.setMethod(HttpMethod.PUT.name());
+            return request;
+        };
+    }
+}
@@ -8,6 +8,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.yo.IntegrationTest;
 import com.yo.domain.Medication;
 import com.yo.repository.MedicationRepository;
+import com.yo.web.rest.util.KeysetPaginationUtil;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -140,6 +141,25 @@ class MedicationResourceIT {
             .andExpect(jsonPath("$.[*].image").value(hasItem(DEFAULT_IMAGE)));
     }
 
+    @Test
+    @Transactional
+    void getAllMedicationsAfterCursor() throws Exception {
+        // Initialize the database
+        medicationRepository.saveAndFlush(medication);
+
+        restMedicationMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}", KeysetPaginationUtil.encodeCursor(medication.getId() - 1)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(medication.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+
+        restMedicationMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}", KeysetPaginationUtil.encodeCursor(medication.getId())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty())
+            .andExpect(header().doesNotExist(KeysetPaginationUtil.HEADER_NEXT_CURSOR));
+    }
+
     @Test
     @Transactional
     void getMedication() throws Exception {
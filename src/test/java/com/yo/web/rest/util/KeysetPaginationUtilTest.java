@@ -0,0 +1,84 @@
+package com.yo.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.yo.domain.Drone;
+import com.yo.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+class KeysetPaginationUtilTest {
+
+    @Test
+    void testCursorRoundTrip() {
+        String cursor = KeysetPaginationUtil.encodeCursor(1234L);
+
+        assertThat(cursor).doesNotContain("1234");
+        assertThat(KeysetPaginationUtil.decodeCursor(cursor)).isEqualTo(1234L);
+    }
+
+    @Test
+    void testEmptyCursorStartsAtFirstPage() {
+        assertThat(KeysetPaginationUtil.decodeCursor("")).isEqualTo(Long.MIN_VALUE);
+        assertThat(KeysetPaginationUtil.decodeCursor(null)).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() {
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor("MTIzNA")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor(KeysetPaginationUtil.encodeCursor(1L) + "x"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testInvalidRequestCursorIsBadRequest() {
+        assertThat(KeysetPaginationUtil.decodeCursor(KeysetPaginationUtil.encodeCursor(7L), "drone")).isEqualTo(7L);
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor("not a cursor", "drone"))
+            .isInstanceOf(BadRequestAlertException.class)
+            .extracting("errorKey")
+            .isEqualTo("cursorinvalid");
+    }
+
+    @Test
+    void testPageSizeIsBounded() {
+        assertThat(KeysetPaginationUtil.pageSize(KeysetPaginationUtil.MAX_SIZE, "drone")).isEqualTo(KeysetPaginationUtil.MAX_SIZE);
+        assertThatThrownBy(() -> KeysetPaginationUtil.pageSize(0, "drone"))
+            .isInstanceOf(BadRequestAlertException.class)
+            .extracting("errorKey")
+            .isEqualTo("sizeinvalid");
+        assertThatThrownBy(() -> KeysetPaginationUtil.pageSize(KeysetPaginationUtil.MAX_SIZE + 1, "drone"))
+            .isInstanceOf(BadRequestAlertException.class);
+    }
+
+    @Test
+    void testHeadersWithNextPage() {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("http://localhost/api/drones?cursor=&size=2");
+        SliceImpl<Drone> slice = new SliceImpl<>(List.of(new Drone().id(3L), new Drone().id(7L)), PageRequest.of(0, 2), true);
+
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(uriBuilder, slice, Drone::getId, null);
+
+        String nextCursor = KeysetPaginationUtil.encodeCursor(7L);
+        assertThat(headers.getFirst(KeysetPaginationUtil.HEADER_NEXT_CURSOR)).isEqualTo(nextCursor);
+        assertThat(headers.getFirst(HttpHeaders.LINK))
+            .isEqualTo("<http://localhost/api/drones?size=2&cursor=" + nextCursor + ">; rel=\"next\"");
+        assertThat(headers.containsKey(KeysetPaginationUtil.HEADER_X_TOTAL_COUNT)).isFalse();
+    }
+
+    @Test
+    void testHeadersOnLastPage() {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("http://localhost/api/drones?cursor=");
+        SliceImpl<Drone> slice = new SliceImpl<>(List.of(new Drone().id(3L)), PageRequest.of(0, 2), false);
+
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(uriBuilder, slice, Drone::getId, 1L);
+
+        assertThat(headers.containsKey(KeysetPaginationUtil.HEADER_NEXT_CURSOR)).isFalse();
+        assertThat(headers.containsKey(HttpHeaders.LINK)).isFalse();
+        assertThat(headers.getFirst(KeysetPaginationUtil.HEADER_X_TOTAL_COUNT)).isEqualTo("1");
+    }
+}